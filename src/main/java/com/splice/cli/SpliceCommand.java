@@ -1,45 +1,298 @@
 package com.splice.cli;
 
+import com.splice.cluster.Coordinator;
+import com.splice.cluster.LocalCluster;
+import com.splice.cluster.Worker;
+import com.splice.extraction.spi.ExtractorProvider;
+import com.splice.io.PathResolver;
 import com.splice.pipeline.BatchProcessor;
+import com.splice.pipeline.ChunkingOptions;
+import com.splice.pipeline.NearDuplicateOptions;
+import com.splice.pipeline.CostEstimator;
+import com.splice.pipeline.DiscoveryFilter;
+import com.splice.pipeline.ProcessingLimits;
+import com.splice.pipeline.DirectoryWatcher;
 import com.splice.io.json.JsonResultWriter;
+import com.splice.server.SpliceServer;
 
 import picocli.CommandLine;
 
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 
 @CommandLine.Command(name = "splice",
         mixinStandardHelpOptions = true,
         version = "splice 1.0",
         description = "Smart ingestion engine for RAG: Optimizes costs by routing documents to local CPU or cloud OCR based on visual complexity.")
 public class SpliceCommand implements Callable<Integer> {
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec;
+
     @CommandLine.Option(names = {"-i", "--input"},
-            description = "Path to a single file or a directory containing multiple files.",
-            required = true)
+            description = "Path to a single file or a directory containing multiple files. Required unless --serve is set.")
     private Path input;
 
     @CommandLine.Option(names = {"-o", "--output"},
-            description = "File or directory where the report and extracted images will be saved.",
-            required = true)
+            description = "File or directory where the report and extracted images will be saved. Required unless --serve is set.")
     private Path output;
 
     @CommandLine.Option(names = {"-r", "--recursive"},
             description = "Process subdirectories recursively if input is a directory.")
     private boolean recursive = false;
 
+    @CommandLine.Option(names = {"--include"}, split = ",",
+            description = "Only process files matching these globs, e.g. '*.pdf' or 'invoices/**'.")
+    private List<String> includes = new ArrayList<>();
+
+    @CommandLine.Option(names = {"--exclude"}, split = ",",
+            description = "Skip files and directories matching these globs.")
+    private List<String> excludes = new ArrayList<>();
+
+    @CommandLine.Option(names = {"--modified-since"},
+            description = "Only process files modified since this date (2024-01-31) or instant (2024-01-31T08:00:00Z).")
+    private String modifiedSince;
+
+    @CommandLine.Option(names = {"--resume"},
+            description = "Skip files the output journal records as already processed and unchanged since.")
+    private boolean resume = false;
+
+    @CommandLine.Option(names = {"--threads"},
+            description = "Documents processed concurrently (default: number of processors).")
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    @CommandLine.Option(names = {"--document-timeout"},
+            description = "Seconds a single document may take before it is abandoned; 0 disables (default: ${DEFAULT-VALUE}).")
+    private long documentTimeout = 600;
+
+    @CommandLine.Option(names = {"--page-timeout"},
+            description = "Seconds a single page may take before its document is abandoned; 0 disables (default: ${DEFAULT-VALUE}).")
+    private long pageTimeout = 60;
+
+    @CommandLine.Option(names = {"--quarantine-after"},
+            description = "Timeouts after which an unchanged document is skipped by later runs; 0 ignores the quarantine (default: ${DEFAULT-VALUE}).")
+    private int quarantineAfter = ProcessingLimits.NONE.quarantineAfter();
+
+    @CommandLine.Option(names = {"--render-dpi"},
+            description = "Rendering resolution for layout detectors without a fixed input size (default: ${DEFAULT-VALUE}).")
+    private float renderDpi = com.splice.extraction.pdf.PdfExtractor.DEFAULT_RENDER_DPI;
+
+    @CommandLine.Option(names = {"--fast"},
+            description = "Lay out born-digital pages from their text and vector content; only complex pages are rendered for the layout model.")
+    private boolean fast = false;
+
+    @CommandLine.Option(names = {"--load-strategy"},
+            description = "How PDFs are read: ${COMPLETION-CANDIDATES}; AUTO picks per file by size and free heap (default: ${DEFAULT-VALUE}).")
+    private com.splice.extraction.pdf.PdfLoadStrategy loadStrategy = com.splice.extraction.pdf.PdfLoadStrategy.AUTO;
+
+    @CommandLine.Option(names = {"--drop-boilerplate"},
+            description = "Drop short texts recurring at the same place on this many pages, such as running headers; 0 keeps them (default: ${DEFAULT-VALUE}).")
+    private int dropBoilerplate = 0;
+
+    @CommandLine.Option(names = {"--page-cache"},
+            description = "Directory caching extracted pages, so pages unchanged since an earlier run (in any document) are not extracted again.")
+    private Path pageCache;
+
+    @CommandLine.Option(names = {"--page-cache-size"},
+            description = "Megabytes the page cache may take before its least recently used pages are evicted (default: ${DEFAULT-VALUE}).")
+    private long pageCacheSize = com.splice.extraction.pdf.PdfExtractionOptions.DEFAULT_PAGE_CACHE_BUDGET / (1024 * 1024);
+
+    @CommandLine.Option(names = {"--skip-near-duplicates"},
+            description = "Skip documents whose first pages nearly repeat the text of a document already seen in the batch. "
+                    + "Each document is loaded one more time to sample the text of its first pages.")
+    private boolean skipNearDuplicates = false;
+
+    @CommandLine.Option(names = {"--chunk-size"},
+            description = "Also write retrieval chunks of at most this size next to each report; 0 disables (default: ${DEFAULT-VALUE}).")
+    private int chunkSize = 0;
+
+    @CommandLine.Option(names = {"--chunk-overlap"},
+            description = "Size repeated between consecutive chunks of a long passage (default: ${DEFAULT-VALUE}).")
+    private int chunkOverlap = 0;
+
+    @CommandLine.Option(names = {"--chunk-unit"},
+            description = "Unit of --chunk-size and --chunk-overlap: ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE}).")
+    private ChunkingOptions.Unit chunkUnit = ChunkingOptions.Unit.TOKENS;
+
+    @CommandLine.Option(names = {"--watch"},
+            description = "Keep running and process documents as they are added to or modified in the input directory.")
+    private boolean watch = false;
+
+    @CommandLine.Option(names = {"--workers"},
+            description = "Split the batch across this many worker processes on this machine (default: run in-process).")
+    private int workers = 0;
+
+    @CommandLine.Option(names = {"--coordinator"}, hidden = true,
+            description = "Port of the coordinator to pull work from; used by worker processes.")
+    private Integer coordinatorPort;
+
+    @CommandLine.Option(names = {"--serve"},
+            description = "Run as a resident service accepting jobs over HTTP on the loopback interface.")
+    private boolean serve = false;
+
+    @CommandLine.Option(names = {"--port"},
+            description = "Port of the service started with --serve (default: ${DEFAULT-VALUE}).")
+    private int port = 8642;
+
+    @CommandLine.Option(names = {"--max-jobs"},
+            description = "Jobs processed concurrently by the service; further jobs are queued (default: ${DEFAULT-VALUE}).")
+    private int maxJobs = 1;
+
     @Override
     public Integer call() throws Exception {
+        if (!serve && (input == null || output == null)) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                    "Missing required options: '--input' and '--output' (or use '--serve')");
+        }
+
         var writer = new JsonResultWriter();
-        var providers = List.of(
-                com.splice.extraction.pdf.PdfExtractor.PROVIDER
+        List<ExtractorProvider> providers = List.of(
+                com.splice.extraction.pdf.PdfExtractor.provider(
+                        com.splice.extraction.pdf.PdfExtractionOptions.DEFAULTS
+                                .withRenderDpi(renderDpi)
+                                .withStructuralFastPath(fast)
+                                .withLoadStrategy(loadStrategy)
+                                .withBoilerplateAfter(dropBoilerplate)
+                                .withPageCache(pageCache, pageCacheSize * 1024 * 1024)
+                )
         );
+        if (workers > 0 && !serve && !watch) {
+            return coordinate(providers);
+        }
+
         try (var detector = new com.splice.detection.YoloLayoutDetector()) {
 
-            var processor = new BatchProcessor(writer, providers, detector);
+            var limits = new ProcessingLimits(
+                    Duration.ofSeconds(documentTimeout),
+                    Duration.ofSeconds(pageTimeout),
+                    quarantineAfter
+            );
+            var chunking = new ChunkingOptions(chunkSize, chunkOverlap, chunkUnit);
+            var nearDuplicates = skipNearDuplicates
+                    ? new NearDuplicateOptions(NearDuplicateOptions.DEFAULT_SAMPLE_PAGES, NearDuplicateOptions.DEFAULT_SIMILARITY)
+                    : NearDuplicateOptions.NONE;
+            var processor = new BatchProcessor(writer, new PathResolver(), providers, detector, threads, limits,
+                    chunking, nearDuplicates);
+
+            if (serve) {
+                return serve(processor);
+            }
+            if (watch) {
+                return watch(processor);
+            }
+            if (coordinatorPort != null) {
+                var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), coordinatorPort);
+                new Worker(processor, input, output, resume, address, threads).run();
+                return 0;
+            }
+
+            processor.process(input, output, recursive, resume, discoveryFilter());
+        }
+
+        return 0;
+    }
+
+    private int coordinate(List<ExtractorProvider> providers) throws Exception {
+        // The coordinator only lists and schedules documents; it never loads the layout model
+        var discovery = new BatchProcessor(new JsonResultWriter(), providers, null);
+        List<Path> files = discovery.listSupportedFiles(input.toAbsolutePath(), recursive, discoveryFilter());
+
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (var coordinator = new Coordinator(address, new CostEstimator(providers))) {
+            coordinator.start();
+
+            try (var cluster = new LocalCluster(coordinator, workers, workerArguments(coordinator.address().getPort()))) {
+                cluster.start();
+                coordinator.run(files);
+            }
+            return coordinator.failed() > 0 ? 1 : 0;
+        }
+    }
+
+    private DiscoveryFilter discoveryFilter() {
+        Instant since = null;
+        if (modifiedSince != null) {
+            try {
+                since = Instant.parse(modifiedSince);
+            } catch (DateTimeParseException e) {
+                try {
+                    since = LocalDate.parse(modifiedSince).atStartOfDay(ZoneId.systemDefault()).toInstant();
+                } catch (DateTimeParseException invalid) {
+                    throw new CommandLine.ParameterException(spec.commandLine(),
+                            "Invalid value for '--modified-since': " + modifiedSince);
+                }
+            }
+        }
+        return new DiscoveryFilter(includes, excludes, since);
+    }
+
+    private List<String> workerArguments(int port) {
+        List<String> args = new ArrayList<>(List.of(
+                "--coordinator", String.valueOf(port),
+                "--input", input.toAbsolutePath().toString(),
+                "--output", output.toAbsolutePath().toString(),
+                "--threads", String.valueOf(Math.max(1, threads / workers)),
+                "--render-dpi", String.valueOf(renderDpi),
+                "--load-strategy", loadStrategy.name(),
+                "--document-timeout", String.valueOf(documentTimeout),
+                "--page-timeout", String.valueOf(pageTimeout),
+                "--quarantine-after", String.valueOf(quarantineAfter),
+                "--drop-boilerplate", String.valueOf(dropBoilerplate),
+                "--chunk-size", String.valueOf(chunkSize),
+                "--chunk-overlap", String.valueOf(chunkOverlap),
+                "--chunk-unit", chunkUnit.name()
+        ));
+        if (recursive) args.add("--recursive");
+        if (resume) args.add("--resume");
+        if (fast) args.add("--fast");
+        if (skipNearDuplicates) args.add("--skip-near-duplicates");
+        if (pageCache != null) {
+            args.addAll(List.of("--page-cache", pageCache.toAbsolutePath().toString(),
+                    "--page-cache-size", String.valueOf(pageCacheSize)));
+        }
+        return args;
+    }
+
+    private int watch(BatchProcessor processor) throws Exception {
+        var watcher = new DirectoryWatcher(processor, input, output, recursive);
+        var finished = new CountDownLatch(1);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            watcher.close();
+            try {
+                finished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        try {
+            watcher.run();
+        } finally {
+            finished.countDown();
+        }
+
+        return 0;
+    }
+
+    private int serve(BatchProcessor processor) throws Exception {
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        var stopped = new CountDownLatch(1);
 
-            processor.process(input, output, recursive);
+        try (var server = new SpliceServer(processor, address, maxJobs)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(stopped::countDown));
+            server.start();
+            stopped.await();
         }
 
         return 0;
@@ -0,0 +1,48 @@
+package com.splice.cluster;
+
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A socket carrying {@link Message}s as JSON lines. Sends are serialized, so heartbeats can be
+ * written from another thread while a unit is being processed.
+ */
+class Connection implements Closeable {
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES)
+            .build();
+
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+
+    Connection(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The next message, or null once the peer closed the connection.
+     */
+    Message receive() throws IOException {
+        String line = in.readLine();
+        return line == null ? null : MAPPER.readValue(line, Message.class);
+    }
+
+    synchronized void send(Message message) throws IOException {
+        out.write(MAPPER.writeValueAsString(message));
+        out.write('\n');
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
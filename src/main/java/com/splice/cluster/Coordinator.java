@@ -0,0 +1,338 @@
+package com.splice.cluster;
+
+import com.splice.pipeline.CostEstimator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands documents out to worker processes connected over local sockets.
+ * <p>
+ * Workers pull one unit per free slot whenever they are idle, so fast workers naturally take over
+ * the remaining queue from slow ones; units are handed out largest estimated cost first. A unit is
+ * a whole document: a worker never shares one with another, however many pages it has.
+ * A unit whose worker reports a failure, disconnects (e.g. a native crash) or misses heartbeats
+ * is requeued, up to a maximum number of attempts, unless no worker is left to take it.
+ */
+public class Coordinator implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(Coordinator.class);
+
+    public static final Duration DEFAULT_HEARTBEAT_TIMEOUT = Duration.ofSeconds(30);
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private final ServerSocket serverSocket;
+    private final CostEstimator costEstimator;
+    private final long heartbeatTimeoutMillis;
+    private final int maxAttempts;
+
+    private final ExecutorService connectionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("splice-coordinator-reaper").daemon().factory());
+    private final Set<WorkerLink> links = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Unit> queue = new PriorityQueue<>(
+            Comparator.comparingLong((Unit u) -> u.cost).reversed().thenComparingLong(u -> u.sequence));
+    private long nextSequence;
+    private int unfinished;
+    // Runs still probing their documents, and whether any run has queued its documents yet:
+    // until then, idle workers are told to wait rather than that they are done
+    private int probing;
+    private boolean queued;
+    private String noWorkersReason;
+    private volatile int failed;
+
+    public Coordinator(InetSocketAddress address, CostEstimator costEstimator) throws IOException {
+        this(address, costEstimator, DEFAULT_HEARTBEAT_TIMEOUT, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * @param heartbeatTimeout Silence after which a worker is considered dead and its units are requeued.
+     * @param maxAttempts      Times a unit is handed out before it is reported as failed.
+     */
+    public Coordinator(InetSocketAddress address, CostEstimator costEstimator, Duration heartbeatTimeout, int maxAttempts) throws IOException {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("At least one attempt is required. Received: " + maxAttempts);
+        }
+        this.costEstimator = costEstimator;
+        this.heartbeatTimeoutMillis = heartbeatTimeout.toMillis();
+        this.maxAttempts = maxAttempts;
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(address);
+    }
+
+    public InetSocketAddress address() {
+        return (InetSocketAddress) serverSocket.getLocalSocketAddress();
+    }
+
+    public void start() {
+        connectionExecutor.execute(this::accept);
+        long period = Math.max(100, heartbeatTimeoutMillis / 4);
+        reaper.scheduleAtFixedRate(this::reapSilentWorkers, period, period, TimeUnit.MILLISECONDS);
+        logger.info("Coordinator listening on {}", address());
+    }
+
+    /**
+     * Queues documents and blocks until every one of them was processed or ran out of attempts.
+     *
+     * @return The total number of pages processed.
+     */
+    public int run(List<Path> files) throws InterruptedException {
+        List<Path> keys = files.stream().map(f -> f.toAbsolutePath().normalize()).toList();
+        List<CompletableFuture<Integer>> results = new ArrayList<>(keys.size());
+
+        lock.lock();
+        try {
+            probing++;
+        } finally {
+            lock.unlock();
+        }
+
+        // Probed without the lock, so workers pulling and heartbeating are not held up meanwhile
+        long[] costs;
+        try {
+            costs = costEstimator.estimateAll(keys);
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                probing--;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            probing--;
+            queued = true;
+            for (int i = 0; i < keys.size(); i++) {
+                var unit = new Unit(UUID.randomUUID().toString(), keys.get(i), costs[i], nextSequence++);
+                results.add(unit.result);
+                if (noWorkersReason != null) {
+                    unit.result.completeExceptionally(new IOException(unit.file + ": " + noWorkersReason));
+                    continue;
+                }
+                queue.add(unit);
+                unfinished++;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        logger.info("Distributing {} documents", files.size());
+
+        int pages = 0;
+        int failures = 0;
+        for (var result : results) {
+            try {
+                pages += result.get();
+            } catch (ExecutionException e) {
+                failures++;
+                logger.error("Document failed: {}", e.getCause().getMessage());
+            }
+        }
+        failed = failures;
+        return pages;
+    }
+
+    /**
+     * Number of documents of the last {@link #run} that were not processed.
+     */
+    public int failed() {
+        return failed;
+    }
+
+    /**
+     * Whether queued or in-flight units remain, or documents are still being probed;
+     * workers still asking for work after this are told they are done.
+     */
+    public boolean hasPendingWork() {
+        lock.lock();
+        try {
+            return hasPendingWorkLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks that no worker is left to take units: the queued units fail, and so do units requeued
+     * or queued later, e.g. those released when the connection of a crashed worker is noticed closed.
+     */
+    public void noWorkersLeft(String reason) {
+        lock.lock();
+        try {
+            noWorkersReason = reason;
+            Unit unit;
+            while ((unit = queue.poll()) != null) {
+                unfinished--;
+                unit.result.completeExceptionally(new IOException(unit.file + ": " + reason));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        reaper.shutdownNow();
+        for (WorkerLink link : links) {
+            link.closeQuietly();
+        }
+        connectionExecutor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                var link = new WorkerLink(new Connection(socket));
+                links.add(link);
+                connectionExecutor.execute(link::serve);
+            } catch (SocketException e) {
+                if (!serverSocket.isClosed()) logger.error("Coordinator socket failed", e);
+                return;
+            } catch (IOException e) {
+                logger.warn("Could not accept a worker connection", e);
+            }
+        }
+    }
+
+    private void reapSilentWorkers() {
+        long now = System.currentTimeMillis();
+        for (WorkerLink link : links) {
+            if (now - link.lastSeen > heartbeatTimeoutMillis) {
+                logger.warn("Worker {} missed its heartbeats, releasing its work", link.name);
+                link.closeQuietly();
+            }
+        }
+    }
+
+    private Message nextFor(WorkerLink link) {
+        lock.lock();
+        try {
+            Unit unit = queue.poll();
+            if (unit != null) {
+                unit.attempts++;
+                link.assigned.put(unit.id, unit);
+                return Message.unit(unit.id, unit.file.toString());
+            }
+            return Message.of(!queued || hasPendingWorkLocked() ? Message.WAIT : Message.DONE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean hasPendingWorkLocked() {
+        return unfinished > 0 || probing > 0;
+    }
+
+    private void complete(WorkerLink link, String unitId, int pages) {
+        lock.lock();
+        try {
+            Unit unit = link.assigned.remove(unitId);
+            if (unit == null) return;
+            unfinished--;
+            unit.result.complete(pages);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void retry(Unit unit, String reason) {
+        lock.lock();
+        try {
+            if (noWorkersReason != null) {
+                unfinished--;
+                unit.result.completeExceptionally(new IOException(unit.file + ": " + reason + ", " + noWorkersReason));
+            } else if (unit.attempts >= maxAttempts) {
+                unfinished--;
+                unit.result.completeExceptionally(new IOException(unit.file + ": " + reason + " after " + unit.attempts + " attempts"));
+            } else {
+                logger.warn("Retrying {} ({}), attempt {} of {}", unit.file, reason, unit.attempts + 1, maxAttempts);
+                queue.add(unit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Unit {
+        private final String id;
+        private final Path file;
+        private final long cost;
+        private final long sequence;
+        private final CompletableFuture<Integer> result = new CompletableFuture<>();
+        private int attempts;
+
+        private Unit(String id, Path file, long cost, long sequence) {
+            this.id = id;
+            this.file = file;
+            this.cost = cost;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * One worker slot's connection and the units handed to it.
+     */
+    private final class WorkerLink {
+        private final Connection connection;
+        private final Map<String, Unit> assigned = new ConcurrentHashMap<>();
+        private volatile long lastSeen = System.currentTimeMillis();
+        private volatile String name = "?";
+
+        private WorkerLink(Connection connection) {
+            this.connection = connection;
+        }
+
+        private void serve() {
+            try {
+                Message message;
+                while ((message = connection.receive()) != null) {
+                    lastSeen = System.currentTimeMillis();
+                    switch (message.type()) {
+                        case Message.HELLO -> name = message.worker();
+                        case Message.NEXT -> connection.send(nextFor(this));
+                        case Message.RESULT -> complete(this, message.unit(), message.pages());
+                        case Message.FAILED -> {
+                            Unit unit = assigned.remove(message.unit());
+                            if (unit != null) retry(unit, message.error());
+                        }
+                        case Message.HEARTBEAT -> { }
+                        default -> logger.warn("Unknown message from worker {}: {}", name, message.type());
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Worker {} connection ended", name, e);
+            } finally {
+                links.remove(this);
+                closeQuietly();
+                for (Unit unit : assigned.values()) {
+                    retry(unit, "worker " + name + " disconnected");
+                }
+                assigned.clear();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                connection.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
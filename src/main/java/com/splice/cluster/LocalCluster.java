@@ -0,0 +1,121 @@
+package com.splice.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs worker JVMs on this machine for a {@link Coordinator}. Each worker has its own heap and
+ * native runtime, so a crash takes down a single process: its units are retried elsewhere and
+ * the process is replaced, up to a restart limit. Once no process is left, the remaining units fail.
+ */
+public class LocalCluster implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(LocalCluster.class);
+
+    private static final String MAIN_CLASS = "com.splice.Main";
+    private static final String PROPERTY_PREFIX = "splice.";
+    private static final long SHUTDOWN_GRACE_SECONDS = 10;
+
+    private final Coordinator coordinator;
+    private final int workers;
+    private final List<String> workerArguments;
+    private final int maxRestarts;
+
+    private final List<Process> processes = new ArrayList<>();
+    private int restarts;
+    private volatile boolean closed;
+
+    /**
+     * @param workerArguments Command line of each worker, without the JVM and main class.
+     */
+    public LocalCluster(Coordinator coordinator, int workers, List<String> workerArguments) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("At least one worker is required. Received: " + workers);
+        }
+        this.coordinator = coordinator;
+        this.workers = workers;
+        this.workerArguments = List.copyOf(workerArguments);
+        this.maxRestarts = workers * Coordinator.DEFAULT_MAX_ATTEMPTS;
+    }
+
+    public void start() throws IOException {
+        for (int i = 0; i < workers; i++) {
+            spawn();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        List<Process> running;
+        synchronized (processes) {
+            running = List.copyOf(processes);
+        }
+        for (Process process : running) {
+            try {
+                if (!process.waitFor(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void spawn() throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(PROPERTY_PREFIX))
+                .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(MAIN_CLASS);
+        command.addAll(workerArguments);
+
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        synchronized (processes) {
+            processes.add(process);
+        }
+        logger.info("Started worker process {}", process.pid());
+
+        process.onExit().thenAccept(this::onExit);
+    }
+
+    private void onExit(Process process) {
+        synchronized (processes) {
+            processes.remove(process);
+        }
+        // Workers exit cleanly once told there is no work left; a crash is replaced even before work is queued
+        if (closed || process.exitValue() == 0) return;
+
+        synchronized (processes) {
+            if (restarts >= maxRestarts) {
+                logger.error("Worker process {} exited with {}; restart limit reached", process.pid(), process.exitValue());
+                if (processes.isEmpty()) {
+                    coordinator.noWorkersLeft("no worker process left");
+                }
+                return;
+            }
+            restarts++;
+        }
+
+        logger.warn("Worker process {} exited with {}; starting a replacement", process.pid(), process.exitValue());
+        try {
+            spawn();
+        } catch (IOException e) {
+            logger.error("Could not start a replacement worker", e);
+            synchronized (processes) {
+                if (processes.isEmpty()) {
+                    coordinator.noWorkersLeft("no worker process could be started");
+                }
+            }
+        }
+    }
+}
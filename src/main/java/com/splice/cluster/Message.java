@@ -0,0 +1,38 @@
+package com.splice.cluster;
+
+/**
+ * A line of the coordinator/worker protocol, exchanged as one JSON object per line.
+ * <p>
+ * Worker to coordinator: {@code hello}, {@code next} (ask for work), {@code result}, {@code failed}, {@code heartbeat}.
+ * Coordinator to worker: {@code unit} (a document to process), {@code wait} (nothing available yet), {@code done}.
+ */
+public record Message(String type, String worker, String unit, String file, int pages, String error) {
+    public static final String HELLO = "hello";
+    public static final String NEXT = "next";
+    public static final String RESULT = "result";
+    public static final String FAILED = "failed";
+    public static final String HEARTBEAT = "heartbeat";
+    public static final String UNIT = "unit";
+    public static final String WAIT = "wait";
+    public static final String DONE = "done";
+
+    public static Message of(String type) {
+        return new Message(type, null, null, null, 0, null);
+    }
+
+    public static Message hello(String worker) {
+        return new Message(HELLO, worker, null, null, 0, null);
+    }
+
+    public static Message unit(String unit, String file) {
+        return new Message(UNIT, null, unit, file, 0, null);
+    }
+
+    public static Message result(String unit, int pages) {
+        return new Message(RESULT, null, unit, null, pages, null);
+    }
+
+    public static Message failed(String unit, String error) {
+        return new Message(FAILED, null, unit, null, 0, error);
+    }
+}
@@ -0,0 +1,141 @@
+package com.splice.cluster;
+
+import com.splice.pipeline.BatchProcessor;
+import com.splice.pipeline.BatchSession;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pulls documents from a {@link Coordinator} and processes them with a local {@link BatchProcessor}.
+ * Each slot holds its own connection and asks for a new unit as soon as it is idle, while a
+ * background thread keeps every connection alive with heartbeats.
+ */
+public class Worker {
+    private static final Logger logger = LoggerFactory.getLogger(Worker.class);
+
+    public static final Duration DEFAULT_HEARTBEAT_INTERVAL = Duration.ofSeconds(5);
+
+    private static final long WAIT_BACKOFF_MILLIS = 200;
+
+    private final BatchProcessor processor;
+    private final Path inputRoot;
+    private final Path outputRoot;
+    private final boolean resume;
+    private final InetSocketAddress coordinator;
+    private final int slots;
+    private final Duration heartbeatInterval;
+    private final String name = "worker-" + ProcessHandle.current().pid();
+
+    public Worker(BatchProcessor processor, Path inputRoot, Path outputRoot, boolean resume,
+                  InetSocketAddress coordinator, int slots) {
+        this(processor, inputRoot, outputRoot, resume, coordinator, slots, DEFAULT_HEARTBEAT_INTERVAL);
+    }
+
+    /**
+     * @param inputRoot Directory the coordinator's documents live under (or one of them); output mirrors it.
+     * @param slots     Units processed at the same time by this worker.
+     */
+    public Worker(BatchProcessor processor, Path inputRoot, Path outputRoot, boolean resume,
+                  InetSocketAddress coordinator, int slots, Duration heartbeatInterval) {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("At least one slot is required. Received: " + slots);
+        }
+        this.processor = processor;
+        this.inputRoot = inputRoot;
+        this.outputRoot = outputRoot;
+        this.resume = resume;
+        this.coordinator = coordinator;
+        this.slots = slots;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    /**
+     * Processes units until the coordinator reports that no work is left or goes away.
+     *
+     * @return The number of pages this worker processed.
+     */
+    public int run() throws IOException, InterruptedException {
+        Path root = inputRoot.toAbsolutePath();
+        Path baseDir = root.toFile().isDirectory() ? root : root.getParent();
+
+        List<Connection> connections = new ArrayList<>(slots);
+        AtomicInteger pages = new AtomicInteger();
+
+        var heartbeat = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("splice-worker-heartbeat").daemon().factory());
+
+        try (var session = processor.openSession(baseDir, outputRoot, resume)) {
+            for (int i = 0; i < slots; i++) {
+                var connection = new Connection(new Socket(coordinator.getAddress(), coordinator.getPort()));
+                connection.send(Message.hello(name + "/" + i));
+                connections.add(connection);
+            }
+
+            long period = heartbeatInterval.toMillis();
+            heartbeat.scheduleAtFixedRate(() -> connections.forEach(this::sendHeartbeat), period, period, TimeUnit.MILLISECONDS);
+
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (var connection : connections) {
+                    executor.execute(() -> pages.addAndGet(serve(connection, session)));
+                }
+            }
+        } finally {
+            heartbeat.shutdownNow();
+            for (var connection : connections) {
+                connection.close();
+            }
+        }
+
+        logger.info("Worker {} finished. Pages processed: {}", name, pages.get());
+        return pages.get();
+    }
+
+    private int serve(Connection connection, BatchSession session) {
+        int pages = 0;
+        try {
+            while (true) {
+                connection.send(Message.of(Message.NEXT));
+                Message reply = connection.receive();
+                if (reply == null || Message.DONE.equals(reply.type())) break;
+
+                if (Message.WAIT.equals(reply.type())) {
+                    Thread.sleep(WAIT_BACKOFF_MILLIS);
+                    continue;
+                }
+
+                try {
+                    int unitPages = session.submit(Path.of(reply.file())).get();
+                    pages += unitPages;
+                    connection.send(Message.result(reply.unit(), unitPages));
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    connection.send(Message.failed(reply.unit(), cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Lost connection to the coordinator", e);
+        }
+        return pages;
+    }
+
+    private void sendHeartbeat(Connection connection) {
+        try {
+            connection.send(Message.of(Message.HEARTBEAT));
+        } catch (IOException e) {
+            logger.debug("Heartbeat failed", e);
+        }
+    }
+}
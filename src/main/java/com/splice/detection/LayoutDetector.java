@@ -5,5 +5,32 @@ import com.splice.model.layout.PageLayout;
 import java.awt.image.BufferedImage;
 
 public interface LayoutDetector {
+    /**
+     * Detects the layout of a rendered page.
+     * Returned boxes are expressed in the pixel space of {@code javaImage}.
+     */
     PageLayout detect(BufferedImage javaImage, int pageNumber) throws Exception;
+
+    /**
+     * Side of the square input the detector runs on, or {@code 0} if it accepts any size.
+     * Callers can rasterise straight into a letterboxed canvas of this size to avoid a second resize.
+     */
+    default int inputSize() {
+        return 0;
+    }
+
+    /**
+     * Whether the detector only needs luminance, allowing callers to render a single channel.
+     */
+    default boolean isGrayscale() {
+        return false;
+    }
+
+    /**
+     * Identifies the model and thresholds the detector runs with, so layouts detected by different
+     * models are never taken for one another.
+     */
+    default String modelId() {
+        return getClass().getName();
+    }
 }
@@ -0,0 +1,56 @@
+package com.splice.detection;
+
+import com.splice.model.geometry.BoundingBox;
+
+/**
+ * Aspect-preserving fit of a source surface into a square model input.
+ * The source is scaled uniformly so its longer side matches {@code size}
+ * and centered, leaving padding bands on the shorter axis.
+ */
+public record Letterbox(int size, float scale, float offsetX, float offsetY) {
+
+    public static Letterbox fit(float sourceWidth, float sourceHeight, int size) {
+        if (sourceWidth <= 0 || sourceHeight <= 0 || size <= 0) {
+            throw new IllegalArgumentException("Invalid letterbox dimensions: " + sourceWidth + "x" + sourceHeight + " -> " + size);
+        }
+
+        float scale = size / Math.max(sourceWidth, sourceHeight);
+
+        float offsetX = (size - sourceWidth * scale) / 2f;
+        float offsetY = (size - sourceHeight * scale) / 2f;
+
+        return new Letterbox(size, scale, offsetX, offsetY);
+    }
+
+    public int contentWidth() {
+        return Math.round(size - 2 * offsetX);
+    }
+
+    public int contentHeight() {
+        return Math.round(size - 2 * offsetY);
+    }
+
+    public boolean isIdentity() {
+        return scale == 1f && offsetX == 0f && offsetY == 0f;
+    }
+
+    /**
+     * Maps a box from letterboxed input space back to the source surface,
+     * clipping away whatever part of it falls on the padding.
+     */
+    public BoundingBox toSource(BoundingBox box) {
+        float sourceWidth = (size - 2 * offsetX) / scale;
+        float sourceHeight = (size - 2 * offsetY) / scale;
+
+        float left = clamp((box.x() - offsetX) / scale, sourceWidth);
+        float top = clamp((box.y() - offsetY) / scale, sourceHeight);
+        float right = clamp((box.getRightX() - offsetX) / scale, sourceWidth);
+        float bottom = clamp((box.getBottomY() - offsetY) / scale, sourceHeight);
+
+        return new BoundingBox(left, top, right - left, bottom - top);
+    }
+
+    private static float clamp(float value, float max) {
+        return Math.max(0f, Math.min(value, max));
+    }
+}
@@ -0,0 +1,155 @@
+package com.splice.detection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Persistent, content-addressed store for model files bundled as classpath resources.
+ * <p>
+ * Each model is extracted once into {@code <root>/<sha256>/} and reused by later processes.
+ * A small index entry keyed by the resource's size and timestamp points to that directory,
+ * so a warm start resolves the model without reading or hashing the bundled resource.
+ * Writes go through a temporary file and an atomic move, so concurrent processes can share the cache.
+ */
+public class ModelCache {
+    private static final Logger logger = LoggerFactory.getLogger(ModelCache.class);
+
+    public static final String CACHE_DIR_PROPERTY = "splice.model.cache";
+    public static final String CACHE_DIR_ENV = "SPLICE_MODEL_CACHE";
+
+    private static final String INDEX_DIR = "index";
+
+    private final Path root;
+
+    public ModelCache(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Cache located by the {@value #CACHE_DIR_PROPERTY} system property, the {@value #CACHE_DIR_ENV}
+     * environment variable, or {@code ~/.cache/splice/models}, in that order.
+     */
+    public static ModelCache defaultCache() {
+        String configured = System.getProperty(CACHE_DIR_PROPERTY, System.getenv(CACHE_DIR_ENV));
+        if (configured != null && !configured.isBlank()) {
+            return new ModelCache(Path.of(configured));
+        }
+        return new ModelCache(Path.of(System.getProperty("user.home"), ".cache", "splice", "models"));
+    }
+
+    /**
+     * Returns the cache directory holding the given model resource, extracting it on first use.
+     *
+     * @param resourcePath Classpath location of the model.
+     * @param fileName     Name the model gets inside its cache directory.
+     */
+    public Path resolve(String resourcePath, String fileName) throws IOException {
+        URL resource = ModelCache.class.getResource(resourcePath);
+        if (resource == null) {
+            throw new IllegalStateException("CRITICAL: Model not found at: " + resourcePath);
+        }
+
+        URLConnection connection = resource.openConnection();
+        long size = connection.getContentLengthLong();
+        String stamp = sha256Hex((resourcePath + ":" + size + ":" + connection.getLastModified()).getBytes(StandardCharsets.UTF_8));
+
+        Path indexEntry = root.resolve(INDEX_DIR).resolve(stamp);
+        if (Files.isRegularFile(indexEntry)) {
+            Path entryDir = root.resolve(Files.readString(indexEntry).trim());
+            Path cached = entryDir.resolve(fileName);
+            if (Files.isRegularFile(cached) && (size < 0 || Files.size(cached) == size)) {
+                logger.debug("Model cache hit: {}", cached);
+                return entryDir;
+            }
+        }
+
+        Files.createDirectories(indexEntry.getParent());
+        Path entryDir = extract(resource, fileName);
+
+        Path indexTemp = Files.createTempFile(indexEntry.getParent(), stamp, ".tmp");
+        Files.writeString(indexTemp, entryDir.getFileName().toString());
+        moveAtomically(indexTemp, indexEntry);
+
+        return entryDir;
+    }
+
+    /**
+     * Copies a companion resource (labels, configuration) next to a cached model if it is not there yet.
+     */
+    public void addCompanion(Path entryDir, String resourcePath, String fileName) throws IOException {
+        Path target = entryDir.resolve(fileName);
+        if (Files.isRegularFile(target)) return;
+
+        try (InputStream input = ModelCache.class.getResourceAsStream(resourcePath)) {
+            if (input == null) return;
+            Path temp = Files.createTempFile(entryDir, fileName, ".tmp");
+            Files.copy(input, temp, StandardCopyOption.REPLACE_EXISTING);
+            moveAtomically(temp, target);
+        }
+    }
+
+    private Path extract(URL resource, String fileName) throws IOException {
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, fileName, ".tmp");
+
+        MessageDigest digest = newDigest();
+        try (InputStream input = new DigestInputStream(resource.openStream(), digest)) {
+            Files.copy(input, temp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Path entryDir = root.resolve(HexFormat.of().formatHex(digest.digest()));
+        Files.createDirectories(entryDir);
+
+        Path target = entryDir.resolve(fileName);
+        if (Files.isRegularFile(target) && Files.size(target) == Files.size(temp)) {
+            Files.delete(temp);
+        } else {
+            moveAtomically(temp, target);
+            logger.info("Model extracted to cache: {}", target);
+        }
+
+        return entryDir;
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(source, target);
+            } catch (FileAlreadyExistsException ignored) {
+                Files.deleteIfExists(source);
+            }
+        }
+    }
+
+    private static String sha256Hex(byte[] bytes) {
+        return HexFormat.of().formatHex(newDigest().digest(bytes));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
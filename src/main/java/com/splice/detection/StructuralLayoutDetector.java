@@ -0,0 +1,19 @@
+package com.splice.detection;
+
+import com.splice.model.layout.PageLayout;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.IOException;
+
+/**
+ * Sibling of {@link LayoutDetector} that works on the PDF structure instead of a rendered image.
+ * Boxes are returned in PDF points with a top-left origin, like the extractors expect.
+ */
+public interface StructuralLayoutDetector {
+    /**
+     * @return The page layout, or {@code null} if the page is too complex to be laid out
+     *         from its structure and should go through visual detection.
+     */
+    PageLayout detect(PDDocument document, int pageNumber) throws IOException;
+}
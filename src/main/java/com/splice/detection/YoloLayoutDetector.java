@@ -5,39 +5,81 @@ import com.splice.model.geometry.BoundingBox;
 import com.splice.model.layout.LayoutElement;
 import com.splice.model.layout.PageLayout;
 
-import ai.djl.modality.cv.transform.Resize;
-import ai.djl.modality.cv.transform.ToTensor;
-import ai.djl.modality.cv.Image;
-import ai.djl.modality.cv.ImageFactory;
+import ai.djl.Model;
+import ai.djl.inference.Predictor;
 import ai.djl.modality.cv.output.DetectedObjects;
-import ai.djl.modality.cv.translator.YoloV8Translator;
-import ai.djl.repository.zoo.Criteria;
-import ai.djl.repository.zoo.ModelNotFoundException;
-import ai.djl.repository.zoo.ZooModel;
 import ai.djl.translate.TranslateException;
-import ai.djl.translate.Pipeline;
 import ai.djl.MalformedModelException;
 
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Color;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.nio.FloatBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class YoloLayoutDetector implements LayoutDetector, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(YoloLayoutDetector.class);
+
+    public static final String OPTIMIZED_GRAPH_PROPERTY = "splice.model.optimized";
+
     private static final String SYNSET_PATH = "/ml/models/synset.txt";
     private static final String MODEL_PATH = "/ml/models/yolov8x-doclaynet-quant.onnx";
+    private static final String MODEL_NAME = "model";
+    private static final String OPTIMIZED_MODEL_NAME = "model.optimized";
+    private static final String ONNX_EXTENSION = ".onnx";
+    private static final String SYNSET_FILE = "synset.txt";
     private static final float CONFIDENCE_THRESHOLD = 0.5f;
     private static final float NMS_THRESHOLD = 0.4f;
     private static final int INPUT_SIZE = 640;
+    private static final Color PADDING_COLOR = new Color(114, 114, 114);
+
+    private final Model model;
+    private final String modelChecksum;
+    private final YoloTensorTranslator translator;
 
-    private final ZooModel<Image, DetectedObjects> model;
+    private final int maxSlots;
+    private final AtomicInteger createdSlots = new AtomicInteger();
+    private final BlockingQueue<InferenceSlot> idleSlots = new LinkedBlockingQueue<>();
+
+    public YoloLayoutDetector() throws MalformedModelException, IOException {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public YoloLayoutDetector(int maxConcurrentInferences) throws MalformedModelException, IOException {
+        this(maxConcurrentInferences, ModelCache.defaultCache(), Boolean.getBoolean(OPTIMIZED_GRAPH_PROPERTY));
+    }
 
-    public YoloLayoutDetector() throws ModelNotFoundException, MalformedModelException, IOException {
-        var criteria = loadCriteria();
-        this.model = criteria.loadModel();
+    /**
+     * @param maxConcurrentInferences Upper bound on predictors (and their input buffers) kept alive at once.
+     * @param modelCache              Where the bundled model is extracted once and reused across runs.
+     * @param useOptimizedGraph       Serialize the ONNX Runtime optimized graph on first load and load it on later starts.
+     */
+    public YoloLayoutDetector(int maxConcurrentInferences, ModelCache modelCache, boolean useOptimizedGraph)
+            throws MalformedModelException, IOException {
+        if (maxConcurrentInferences <= 0) {
+            throw new IllegalArgumentException("At least one concurrent inference is required. Received: " + maxConcurrentInferences);
+        }
+        this.maxSlots = maxConcurrentInferences;
+        this.translator = new YoloTensorTranslator(INPUT_SIZE, CONFIDENCE_THRESHOLD, NMS_THRESHOLD);
+        Path modelDir = modelCache.resolve(MODEL_PATH, MODEL_NAME + ONNX_EXTENSION);
+        // Cache entries are named after the SHA-256 of the model they hold
+        this.modelChecksum = modelDir.getFileName().toString();
+        this.model = loadModel(modelDir, modelCache, useOptimizedGraph);
     }
 
     @Override
@@ -46,14 +88,14 @@ public class YoloLayoutDetector implements LayoutDetector, AutoCloseable {
 
         List<LayoutElement> elements = new ArrayList<>();
 
-        Image djlImage = ImageFactory.getInstance().fromImage(javaImage);
-
-        int imgWidth = javaImage.getWidth();
-        int imgHeight = javaImage.getHeight();
+        var letterbox = Letterbox.fit(javaImage.getWidth(), javaImage.getHeight(), INPUT_SIZE);
 
-        try (var predictor = model.newPredictor()) {
+        InferenceSlot slot = acquireSlot();
+        try {
+            var input = letterbox.isIdentity() ? javaImage : slot.letterbox(javaImage, letterbox);
+            translator.fill(input, slot.input, slot.rowBuffer);
 
-            var detectedObjects = predictor.predict(djlImage).items();
+            var detectedObjects = slot.predictor.predict(slot.input).items();
 
             detectedObjects.stream()
                     .filter(DetectedObjects.DetectedObject.class::isInstance)
@@ -63,70 +105,143 @@ public class YoloLayoutDetector implements LayoutDetector, AutoCloseable {
                                     new LayoutElement(
                                             object.getProbability(),
                                             ElementType.fromLabel(object.getClassName()),
-                                            transformToLocalBox(object.getBoundingBox(), imgWidth, imgHeight)
+                                            letterbox.toSource(toLocalBox(object.getBoundingBox()))
                                     )
                             )
                     );
+        } finally {
+            idleSlots.add(slot);
         }
 
         return new PageLayout(pageNumber, elements);
     }
 
+    @Override
+    public int inputSize() {
+        return INPUT_SIZE;
+    }
+
+    @Override
+    public String modelId() {
+        return "yolov8-doclaynet@" + modelChecksum + ";confidence=" + CONFIDENCE_THRESHOLD + ";nms=" + NMS_THRESHOLD;
+    }
+
     @Override
     public void close() {
+        InferenceSlot slot;
+        while ((slot = idleSlots.poll()) != null) {
+            slot.predictor.close();
+        }
         if (this.model != null) {
             this.model.close();
         }
     }
 
-    private BoundingBox transformToLocalBox(ai.djl.modality.cv.output.BoundingBox box, int imgWidth, int imgHeight) {
-        var rect = box.getBounds();
-
-        var scaleX = (double) imgWidth / INPUT_SIZE;
-        var scaleY = (double) imgHeight / INPUT_SIZE;
+    private InferenceSlot acquireSlot() throws TranslateException {
+        InferenceSlot slot = idleSlots.poll();
+        if (slot != null) return slot;
 
-        var x      = (float) (rect.getX() * scaleX);
-        var y      = (float) (rect.getY() * scaleY);
-        var width  = (float) (rect.getWidth() * scaleX);
-        var height = (float) (rect.getHeight() * scaleY);
+        if (createdSlots.incrementAndGet() <= maxSlots) {
+            return new InferenceSlot(model.newPredictor(translator), translator.allocateInput());
+        }
+        createdSlots.decrementAndGet();
 
-        return new BoundingBox(x, y, width, height);
+        try {
+            return idleSlots.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Interrupted while waiting for a free predictor", e);
+        }
     }
 
-    private Criteria<Image, DetectedObjects> loadCriteria() throws IOException {
-        Pipeline pipeline = new Pipeline();
-        pipeline.add(new Resize(INPUT_SIZE, INPUT_SIZE));
-        pipeline.add(new ToTensor());
+    private BoundingBox toLocalBox(ai.djl.modality.cv.output.BoundingBox box) {
+        var rect = box.getBounds();
 
-        Path tempModelFile = Files.createTempFile("yolov8", ".onnx");
-        tempModelFile.toFile().deleteOnExit();
+        return new BoundingBox(
+                (float) rect.getX(),
+                (float) rect.getY(),
+                (float) rect.getWidth(),
+                (float) rect.getHeight()
+        );
+    }
 
-        try (var modelInput = this.getClass().getResourceAsStream(MODEL_PATH)) {
-            if (modelInput == null) {
-                throw new IllegalStateException("CRITICAL: Model not found at: " + MODEL_PATH);
+    private Model loadModel(Path modelDir, ModelCache modelCache, boolean useOptimizedGraph)
+            throws IOException, MalformedModelException {
+        modelCache.addCompanion(modelDir, SYNSET_PATH, SYNSET_FILE);
+
+        Path optimizedGraph = modelDir.resolve(OPTIMIZED_MODEL_NAME + ONNX_EXTENSION);
+        boolean hasOptimizedGraph = useOptimizedGraph && Files.isRegularFile(optimizedGraph);
+        Path pendingGraph = null;
+
+        Model loaded = Model.newInstance("yolov8-doclaynet", "OnnxRuntime");
+        try {
+            var sessionOptions = new OrtSession.SessionOptions();
+            if (useOptimizedGraph && !hasOptimizedGraph) {
+                pendingGraph = Files.createTempFile(modelDir, OPTIMIZED_MODEL_NAME, ".tmp");
+                sessionOptions.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.EXTENDED_OPT);
+                sessionOptions.setOptimizedModelFilePath(pendingGraph.toString());
             }
-            Files.copy(modelInput, tempModelFile, StandardCopyOption.REPLACE_EXISTING);
+
+            loaded.load(modelDir, hasOptimizedGraph ? OPTIMIZED_MODEL_NAME : MODEL_NAME, Map.of("sessionOptions", sessionOptions));
+        } catch (OrtException e) {
+            loaded.close();
+            throw new MalformedModelException("Invalid ONNX Runtime session options", e);
+        } catch (IOException | MalformedModelException | RuntimeException e) {
+            loaded.close();
+            throw e;
+        }
+
+        if (pendingGraph != null) {
+            publishOptimizedGraph(pendingGraph, optimizedGraph);
         }
 
-        try (var synsetInput = this.getClass().getResourceAsStream(SYNSET_PATH)) {
-            if (synsetInput != null) {
-                Path tempSynsetFile = tempModelFile.getParent().resolve("synset.txt");
-                tempSynsetFile.toFile().deleteOnExit();
-                Files.copy(synsetInput, tempSynsetFile, StandardCopyOption.REPLACE_EXISTING);
+        return loaded;
+    }
+
+    private void publishOptimizedGraph(Path pendingGraph, Path optimizedGraph) {
+        try {
+            if (Files.size(pendingGraph) > 0) {
+                Files.move(pendingGraph, optimizedGraph, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                logger.info("Optimized model graph saved to: {}", optimizedGraph);
+            } else {
+                Files.deleteIfExists(pendingGraph);
             }
+        } catch (IOException e) {
+            logger.warn("Could not save the optimized model graph: {}", optimizedGraph, e);
+        }
+    }
+
+    /**
+     * A predictor with its own input buffer and letterbox canvas. Predictors are not thread-safe,
+     * so a slot is used by one caller at a time and returned to the pool afterwards.
+     */
+    private static final class InferenceSlot {
+        private final Predictor<FloatBuffer, DetectedObjects> predictor;
+        private final FloatBuffer input;
+        private final int[] rowBuffer = new int[INPUT_SIZE];
+        private BufferedImage canvas;
+
+        private InferenceSlot(Predictor<FloatBuffer, DetectedObjects> predictor, FloatBuffer input) {
+            this.predictor = predictor;
+            this.input = input;
         }
 
-        String modelUrl = tempModelFile.toUri().toString();
-
-        return Criteria.builder()
-                .setTypes(Image.class, DetectedObjects.class)
-                .optModelUrls(modelUrl)
-                .optEngine("OnnxRuntime")
-                .optTranslator(YoloV8Translator.builder()
-                        .setPipeline(pipeline)
-                        .optThreshold(CONFIDENCE_THRESHOLD)
-                        .optNmsThreshold(NMS_THRESHOLD)
-                        .build())
-                .build();
+        private BufferedImage letterbox(BufferedImage source, Letterbox letterbox) {
+            if (canvas == null) {
+                canvas = new BufferedImage(INPUT_SIZE, INPUT_SIZE, BufferedImage.TYPE_INT_RGB);
+            }
+            var graphics = canvas.createGraphics();
+            try {
+                graphics.setColor(PADDING_COLOR);
+                graphics.fillRect(0, 0, INPUT_SIZE, INPUT_SIZE);
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(source,
+                        Math.round(letterbox.offsetX()), Math.round(letterbox.offsetY()),
+                        letterbox.contentWidth(), letterbox.contentHeight(), null);
+            } finally {
+                graphics.dispose();
+            }
+            return canvas;
+        }
     }
-}
\ No newline at end of file
+}
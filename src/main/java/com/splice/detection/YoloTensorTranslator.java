@@ -0,0 +1,112 @@
+package com.splice.detection;
+
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.modality.cv.translator.YoloV5Translator;
+import ai.djl.modality.cv.translator.YoloV8Translator;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.Batchifier;
+import ai.djl.translate.Pipeline;
+import ai.djl.translate.Translator;
+import ai.djl.translate.TranslatorContext;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Feeds a pre-filled, caller-owned CHW float buffer to the model instead of going through
+ * {@code ImageFactory} and a DJL {@code Pipeline}. Direct buffers are wrapped by ONNX Runtime
+ * without a copy, so steady-state inference does not allocate input tensors.
+ * Post-processing (decoding and NMS) is delegated to {@link YoloV8Translator}.
+ */
+class YoloTensorTranslator implements Translator<FloatBuffer, DetectedObjects> {
+    private static final float PIXEL_SCALE = 1f / 255f;
+
+    private final int inputSize;
+    private final Shape inputShape;
+    private final YoloV5Translator delegate;
+
+    YoloTensorTranslator(int inputSize, float confidenceThreshold, float nmsThreshold) {
+        this.inputSize = inputSize;
+        this.inputShape = new Shape(1, 3, inputSize, inputSize);
+        this.delegate = YoloV8Translator.builder()
+                .setPipeline(new Pipeline())
+                .optThreshold(confidenceThreshold)
+                .optNmsThreshold(nmsThreshold)
+                .build();
+    }
+
+    /**
+     * Allocates a native-ordered direct buffer sized for one input tensor.
+     */
+    FloatBuffer allocateInput() {
+        return ByteBuffer.allocateDirect(Math.toIntExact(inputShape.size()) * Float.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+    }
+
+    /**
+     * Writes the pixels of a square {@code inputSize} image into {@code target} as normalised CHW planes.
+     *
+     * @param rowBuffer Scratch row of at least {@code inputSize} ints, used when the raster is not packed RGB.
+     */
+    void fill(BufferedImage image, FloatBuffer target, int[] rowBuffer) {
+        if (image.getWidth() != inputSize || image.getHeight() != inputSize) {
+            throw new IllegalArgumentException("Expected a " + inputSize + "x" + inputSize + " image, got "
+                    + image.getWidth() + "x" + image.getHeight());
+        }
+
+        int plane = inputSize * inputSize;
+
+        boolean packed = image.getType() == BufferedImage.TYPE_INT_RGB || image.getType() == BufferedImage.TYPE_INT_ARGB;
+        if (packed && image.getRaster().getDataBuffer().getSize() == plane) {
+            int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            for (int i = 0; i < plane; i++) {
+                writePixel(target, i, plane, pixels[i]);
+            }
+            return;
+        }
+
+        for (int y = 0; y < inputSize; y++) {
+            image.getRGB(0, y, inputSize, 1, rowBuffer, 0, inputSize);
+            int rowOffset = y * inputSize;
+            for (int x = 0; x < inputSize; x++) {
+                writePixel(target, rowOffset + x, plane, rowBuffer[x]);
+            }
+        }
+    }
+
+    private static void writePixel(FloatBuffer target, int index, int plane, int rgb) {
+        target.put(index, ((rgb >> 16) & 0xFF) * PIXEL_SCALE);
+        target.put(plane + index, ((rgb >> 8) & 0xFF) * PIXEL_SCALE);
+        target.put(2 * plane + index, (rgb & 0xFF) * PIXEL_SCALE);
+    }
+
+    @Override
+    public void prepare(TranslatorContext ctx) throws Exception {
+        delegate.prepare(ctx);
+    }
+
+    @Override
+    public NDList processInput(TranslatorContext ctx, FloatBuffer input) {
+        ctx.setAttachment("width", inputSize);
+        ctx.setAttachment("height", inputSize);
+
+        input.rewind();
+        return new NDList(ctx.getNDManager().create(input, inputShape, DataType.FLOAT32));
+    }
+
+    @Override
+    public DetectedObjects processOutput(TranslatorContext ctx, NDList list) {
+        return delegate.processOutput(ctx, new NDList(list.singletonOrThrow().squeeze(0)));
+    }
+
+    @Override
+    public Batchifier getBatchifier() {
+        return null;
+    }
+}
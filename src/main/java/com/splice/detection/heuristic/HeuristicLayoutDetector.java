@@ -0,0 +1,396 @@
+package com.splice.detection.heuristic;
+
+import com.splice.detection.StructuralLayoutDetector;
+import com.splice.detection.heuristic.PageStructureCollector.Glyph;
+import com.splice.detection.heuristic.PageStructureCollector.Ruling;
+import com.splice.model.document.ElementType;
+import com.splice.model.geometry.BoundingBox;
+import com.splice.model.layout.LayoutElement;
+import com.splice.model.layout.PageLayout;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Lays out born-digital pages from glyph statistics and vector rulings, without rendering.
+ * Each page gets a {@link PageComplexity} score; pages above the threshold (scans, image-heavy
+ * or diagram-heavy pages, broken text layers) are left to visual detection.
+ * Not thread-safe: one instance per document.
+ */
+public class HeuristicLayoutDetector implements StructuralLayoutDetector {
+    public static final double DEFAULT_COMPLEXITY_THRESHOLD = 0.3;
+
+    private static final double CONFIDENCE = 0.6;
+
+    private static final int MIN_GLYPHS = 10;
+    private static final int VECTOR_SEGMENT_SATURATION = 400;
+    private static final int MAX_RULINGS = 2000;
+
+    private static final float MARGIN_BAND_RATIO = 0.08f;
+    private static final float TITLE_SIZE_FACTOR = 1.5f;
+    private static final float HEADER_SIZE_FACTOR = 1.15f;
+    private static final float FOOTNOTE_SIZE_FACTOR = 0.85f;
+    private static final float FONT_SIZE_TOLERANCE = 0.15f;
+    private static final float MAX_GLYPH_GAP_FACTOR = 1.5f;
+    private static final float MAX_LINE_GAP_FACTOR = 1.0f;
+    private static final float BASELINE_TOLERANCE_FACTOR = 0.3f;
+    private static final float RULING_JOIN_TOLERANCE = 2.0f;
+    private static final float MIN_IMAGE_SIDE = 20.0f;
+    private static final int MAX_HEADER_LINES = 2;
+    private static final int MAX_HEADER_LENGTH = 120;
+
+    private static final Pattern LIST_MARKER = Pattern.compile("^([•◦▪▫‣∙·*–-]|\\(?\\d{1,3}[.)]|\\(?[a-zA-Z][.)])\\s*.*");
+
+    private final double complexityThreshold;
+    private final PageStructureCollector collector;
+
+    public HeuristicLayoutDetector() throws IOException {
+        this(DEFAULT_COMPLEXITY_THRESHOLD);
+    }
+
+    public HeuristicLayoutDetector(double complexityThreshold) throws IOException {
+        this.complexityThreshold = complexityThreshold;
+        this.collector = new PageStructureCollector();
+    }
+
+    @Override
+    public PageLayout detect(PDDocument document, int pageNumber) throws IOException {
+        PDPage page = document.getPage(pageNumber - 1);
+        collector.collect(document, pageNumber);
+
+        PDRectangle cropBox = page.getCropBox();
+        float pageWidth = cropBox.getWidth();
+        float pageHeight = cropBox.getHeight();
+
+        PageComplexity complexity = assess(page, pageWidth * pageHeight);
+        if (complexity.exceeds(complexityThreshold)) {
+            return null;
+        }
+
+        List<LayoutElement> elements = new ArrayList<>();
+
+        List<BoundingBox> tables = detectTables(collector.rulings(), pageWidth);
+        tables.forEach(t -> elements.add(new LayoutElement(CONFIDENCE, ElementType.TABLE, t)));
+
+        collector.images().stream()
+                .filter(box -> box.width() >= MIN_IMAGE_SIDE && box.height() >= MIN_IMAGE_SIDE)
+                .forEach(box -> elements.add(new LayoutElement(CONFIDENCE, ElementType.IMAGE, box)));
+
+        List<Line> lines = formLines(collector.glyphs());
+        List<Block> blocks = formBlocks(lines);
+        float bodySize = dominantFontSize(lines);
+
+        boolean titleAssigned = false;
+        for (Block block : blocks) {
+            BoundingBox box = block.box();
+            if (tables.stream().anyMatch(t -> contains(t, box))) continue;
+
+            ElementType type = classify(block, bodySize, pageHeight, titleAssigned);
+            titleAssigned |= type == ElementType.TITLE;
+
+            elements.add(new LayoutElement(CONFIDENCE, type, block.region()));
+        }
+
+        return new PageLayout(pageNumber, elements);
+    }
+
+    /**
+     * Scores how much a page would benefit from visual detection, from the data collected for it.
+     */
+    private PageComplexity assess(PDPage page, float pageArea) {
+        int glyphCount = collector.glyphs().size();
+        int unmapped = collector.unmappedGlyphs();
+
+        double imageArea = collector.images().stream().mapToDouble(b -> (double) b.width() * b.height()).sum();
+        double imageCoverage = pageArea > 0 ? Math.min(1.0, imageArea / pageArea) : 0;
+        double unmappedRatio = (glyphCount + unmapped) == 0 ? 0 : (double) unmapped / (glyphCount + unmapped);
+        double rotatedRatio = glyphCount == 0 ? 0 : (double) collector.rotatedGlyphs() / glyphCount;
+        double vectorDensity = Math.min(1.0, (double) collector.vectorSegments() / VECTOR_SEGMENT_SATURATION);
+
+        double score = Math.max(imageCoverage, Math.max(2 * unmappedRatio, Math.max(rotatedRatio, vectorDensity)));
+
+        boolean textless = glyphCount < MIN_GLYPHS && imageCoverage > 0.1;
+        boolean rotatedPage = page.getRotation() % 360 != 0;
+        boolean tooManyRulings = collector.rulings().size() > MAX_RULINGS;
+        if (textless || rotatedPage || tooManyRulings) {
+            score = 1.0;
+        }
+
+        return new PageComplexity(Math.min(1.0, score), glyphCount, imageCoverage, unmappedRatio, collector.vectorSegments());
+    }
+
+    private ElementType classify(Block block, float bodySize, float pageHeight, boolean titleAssigned) {
+        BoundingBox box = block.box();
+        float size = block.fontSize();
+        boolean short_ = block.lines.size() <= MAX_HEADER_LINES && block.length() <= MAX_HEADER_LENGTH;
+
+        if (block.lines.size() == 1 && box.getBottomY() <= pageHeight * MARGIN_BAND_RATIO) {
+            return ElementType.PAGE_HEADER;
+        }
+        if (block.lines.size() == 1 && box.y() >= pageHeight * (1 - MARGIN_BAND_RATIO)) {
+            return ElementType.PAGE_FOOTER;
+        }
+        if (bodySize > 0 && size >= bodySize * TITLE_SIZE_FACTOR && short_ && !titleAssigned) {
+            return ElementType.TITLE;
+        }
+        if (bodySize > 0 && short_ && (size >= bodySize * HEADER_SIZE_FACTOR || (block.bold() && block.lines.size() == 1))) {
+            return ElementType.SECTION_HEADER;
+        }
+        if (LIST_MARKER.matcher(block.lines.getFirst().text()).matches() && !block.lines.getFirst().text().matches("^\\d+\\.\\d.*")) {
+            return ElementType.LIST_ITEM;
+        }
+        if (bodySize > 0 && size <= bodySize * FOOTNOTE_SIZE_FACTOR && box.y() >= pageHeight * 0.6f) {
+            return ElementType.FOOTNOTE;
+        }
+        return ElementType.TEXT;
+    }
+
+    private List<Line> formLines(List<Glyph> glyphs) {
+        List<Glyph> sorted = new ArrayList<>(glyphs);
+        sorted.sort(Comparator.comparingDouble((Glyph g) -> g.box().getBottomY()).thenComparingDouble(g -> g.box().x()));
+
+        List<Line> lines = new ArrayList<>();
+        List<Line> openLines = new ArrayList<>();
+        float currentBaseline = Float.NaN;
+
+        for (Glyph glyph : sorted) {
+            float baseline = glyph.box().getBottomY();
+            float tolerance = Math.max(1f, glyph.box().height() * BASELINE_TOLERANCE_FACTOR);
+
+            if (Float.isNaN(currentBaseline) || baseline - currentBaseline > tolerance) {
+                lines.addAll(openLines);
+                openLines.clear();
+                currentBaseline = baseline;
+            }
+
+            Line target = null;
+            for (Line line : openLines) {
+                float gap = glyph.box().x() - line.box.getRightX();
+                if (gap >= -glyph.box().width() && gap <= Math.max(glyph.fontSize(), 1f) * MAX_GLYPH_GAP_FACTOR) {
+                    target = line;
+                    break;
+                }
+            }
+            if (target == null) {
+                target = new Line();
+                openLines.add(target);
+            }
+            target.add(glyph);
+        }
+        lines.addAll(openLines);
+
+        lines.sort(Comparator.comparingDouble((Line l) -> l.box.y()).thenComparingDouble(l -> l.box.x()));
+        return lines;
+    }
+
+    private List<Block> formBlocks(List<Line> lines) {
+        List<Block> blocks = new ArrayList<>();
+
+        for (Line line : lines) {
+            Block target = null;
+            for (int i = blocks.size() - 1; i >= 0; i--) {
+                Block candidate = blocks.get(i);
+                if (candidate.accepts(line)) {
+                    target = candidate;
+                    break;
+                }
+            }
+            if (target == null) {
+                target = new Block();
+                blocks.add(target);
+            }
+            target.add(line);
+        }
+
+        return blocks;
+    }
+
+    private List<BoundingBox> detectTables(List<Ruling> rulings, float pageWidth) {
+        int n = rulings.size();
+        if (n < 3) return List.of();
+
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+
+        BoundingBox[] expanded = new BoundingBox[n];
+        for (int i = 0; i < n; i++) expanded[i] = expand(rulings.get(i).box());
+
+        // Sweep by left edge: a ruling is only compared with those still spanning its left edge
+        Integer[] byLeft = new Integer[n];
+        for (int i = 0; i < n; i++) byLeft[i] = i;
+        Arrays.sort(byLeft, Comparator.comparingDouble(i -> expanded[i].x()));
+
+        PriorityQueue<Integer> active = new PriorityQueue<>(Comparator.comparingDouble(i -> expanded[i].getRightX()));
+        for (int i : byLeft) {
+            while (!active.isEmpty() && expanded[active.peek()].getRightX() <= expanded[i].x()) {
+                active.poll();
+            }
+            for (int other : active) {
+                if (expanded[i].intersects(expanded[other])) {
+                    parent[find(parent, i)] = find(parent, other);
+                }
+            }
+            active.add(i);
+        }
+
+        Map<Integer, List<Ruling>> clusters = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            clusters.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(rulings.get(i));
+        }
+
+        List<BoundingBox> tables = new ArrayList<>();
+        for (List<Ruling> cluster : clusters.values()) {
+            long horizontal = cluster.stream().filter(Ruling::horizontal).count();
+            long vertical = cluster.size() - horizontal;
+
+            BoundingBox box = cluster.stream().map(Ruling::box).reduce(BoundingBox::union).orElseThrow();
+
+            boolean grid = horizontal >= 2 && vertical >= 2;
+            if (grid && box.height() > 0) {
+                tables.add(box);
+            }
+        }
+
+        // Borderless tables: three or more wide, stacked horizontal rules (booktabs style)
+        List<BoundingBox> wideRules = rulings.stream()
+                .filter(Ruling::horizontal)
+                .map(Ruling::box)
+                .filter(b -> b.width() >= pageWidth * 0.3f)
+                .filter(b -> tables.stream().noneMatch(t -> contains(t, b)))
+                .sorted(Comparator.comparingDouble(BoundingBox::y))
+                .toList();
+
+        if (wideRules.size() >= 3) {
+            BoundingBox span = wideRules.stream().reduce(BoundingBox::union).orElseThrow();
+            tables.add(span);
+        }
+
+        return tables;
+    }
+
+    private float dominantFontSize(List<Line> lines) {
+        Map<Integer, Integer> histogram = new HashMap<>();
+        for (Line line : lines) {
+            histogram.merge(Math.round(line.fontSize() * 2), line.glyphCount, Integer::sum);
+        }
+        return histogram.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(e -> e.getKey() / 2f)
+                .orElse(0f);
+    }
+
+    private static BoundingBox expand(BoundingBox box) {
+        return new BoundingBox(box.x() - RULING_JOIN_TOLERANCE, box.y() - RULING_JOIN_TOLERANCE,
+                box.width() + 2 * RULING_JOIN_TOLERANCE, box.height() + 2 * RULING_JOIN_TOLERANCE);
+    }
+
+    private static boolean contains(BoundingBox outer, BoundingBox inner) {
+        float cx = inner.x() + inner.width() / 2;
+        float cy = inner.y() + inner.height() / 2;
+        return cx >= outer.x() && cx <= outer.getRightX() && cy >= outer.y() && cy <= outer.getBottomY();
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static final class Line {
+        private final StringBuilder text = new StringBuilder();
+        private BoundingBox box;
+        private float sumFontSize;
+        private int glyphCount;
+        private int boldCount;
+
+        void add(Glyph glyph) {
+            if (box != null && glyph.box().x() - box.getRightX() > glyph.fontSize() * 0.2f) {
+                text.append(' ');
+            }
+            text.append(glyph.text());
+            box = box == null ? glyph.box() : box.union(glyph.box());
+            sumFontSize += glyph.fontSize();
+            glyphCount++;
+            if (glyph.bold()) boldCount++;
+        }
+
+        float fontSize() {
+            return glyphCount == 0 ? 0 : sumFontSize / glyphCount;
+        }
+
+        String text() {
+            return text.toString().strip();
+        }
+    }
+
+    private static final class Block {
+        private final List<Line> lines = new ArrayList<>();
+        private BoundingBox box;
+
+        boolean accepts(Line line) {
+            Line last = lines.getLast();
+            float gap = line.box.y() - last.box.getBottomY();
+            float sizeRatio = Math.abs(line.fontSize() - last.fontSize()) / Math.max(last.fontSize(), 1f);
+
+            // Glyph heights reported by PDFBox are often well below the font size, so leading is measured against the latter
+            float lineHeight = Math.max(last.box.height(), last.fontSize());
+
+            return gap >= -lineHeight * 0.5f
+                    && gap <= lineHeight * MAX_LINE_GAP_FACTOR
+                    && last.box.overlapsHorizontally(line.box)
+                    && sizeRatio <= FONT_SIZE_TOLERANCE;
+        }
+
+        void add(Line line) {
+            lines.add(line);
+            box = box == null ? line.box : box.union(line.box);
+        }
+
+        BoundingBox box() {
+            return box;
+        }
+
+        /**
+         * Region handed to the text extractor, which anchors each glyph at its baseline and extends it
+         * downwards: the band runs from just above the first baseline to just below the last one.
+         */
+        BoundingBox region() {
+            Line first = lines.getFirst();
+            Line last = lines.getLast();
+            float top = first.box.getBottomY() - first.box.height() * 0.5f;
+            float bottom = last.box.getBottomY() + last.box.height() * 0.3f;
+            return new BoundingBox(box.x(), top, box.width(), bottom - top);
+        }
+
+        float fontSize() {
+            float sum = 0;
+            int count = 0;
+            for (Line line : lines) {
+                sum += line.sumFontSize;
+                count += line.glyphCount;
+            }
+            return count == 0 ? 0 : sum / count;
+        }
+
+        boolean bold() {
+            int bold = 0;
+            int count = 0;
+            for (Line line : lines) {
+                bold += line.boldCount;
+                count += line.glyphCount;
+            }
+            return count > 0 && bold * 2 > count;
+        }
+
+        int length() {
+            return lines.stream().mapToInt(l -> l.text.length()).sum();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.splice.detection.heuristic;
+
+/**
+ * Signals used to decide whether a page can be laid out from its structure alone.
+ *
+ * @param score              Overall complexity in [0, 1]; the highest of the individual signals.
+ * @param glyphCount         Number of visible glyphs with a text layer.
+ * @param imageCoverage      Fraction of the page area covered by image placements.
+ * @param unmappedGlyphRatio Fraction of glyphs without a usable Unicode mapping.
+ * @param vectorSegments     Curves and non axis-aligned path segments (charts, diagrams).
+ */
+public record PageComplexity(
+        double score,
+        int glyphCount,
+        double imageCoverage,
+        double unmappedGlyphRatio,
+        int vectorSegments
+) {
+    public boolean exceeds(double threshold) {
+        return score > threshold;
+    }
+}
@@ -0,0 +1,238 @@
+package com.splice.detection.heuristic;
+
+import com.splice.extraction.Deadline;
+import com.splice.model.geometry.BoundingBox;
+
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.contentstream.operator.OperatorName;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSNumber;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+import org.apache.pdfbox.util.Matrix;
+
+import java.awt.geom.Point2D;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single pass over a page content stream collecting glyph positions, image placements
+ * and axis-aligned rulings, without rasterising anything.
+ * Coordinates use the same top-left, crop-box relative space as {@link TextPosition}.
+ */
+class PageStructureCollector extends PDFTextStripper {
+    private static final float RULING_THICKNESS = 2.0f;
+    private static final float AXIS_TOLERANCE = 0.5f;
+    private static final int BOLD_WEIGHT = 600;
+
+    private final List<Glyph> glyphs = new ArrayList<>();
+    private final List<BoundingBox> images = new ArrayList<>();
+    private final List<Ruling> rulings = new ArrayList<>();
+
+    private int unmappedGlyphs;
+    private int rotatedGlyphs;
+    private int vectorSegments;
+
+    private float pageHeight;
+    private float originX;
+    private float originY;
+    private Point2D.Float currentPoint;
+
+    record Glyph(String text, float fontSize, boolean bold, BoundingBox box) {}
+
+    record Ruling(boolean horizontal, BoundingBox box) {}
+
+    PageStructureCollector() throws IOException {
+        super();
+        this.setSortByPosition(false);
+    }
+
+    void collect(PDDocument document, int pageNumber) throws IOException {
+        glyphs.clear();
+        images.clear();
+        rulings.clear();
+        unmappedGlyphs = 0;
+        rotatedGlyphs = 0;
+        vectorSegments = 0;
+        currentPoint = null;
+
+        setStartPage(pageNumber);
+        setEndPage(pageNumber);
+        writeText(document, Writer.nullWriter());
+    }
+
+    List<Glyph> glyphs() { return glyphs; }
+
+    List<BoundingBox> images() { return images; }
+
+    List<Ruling> rulings() { return rulings; }
+
+    int unmappedGlyphs() { return unmappedGlyphs; }
+
+    int rotatedGlyphs() { return rotatedGlyphs; }
+
+    int vectorSegments() { return vectorSegments; }
+
+    @Override
+    protected void startPage(PDPage page) throws IOException {
+        PDRectangle cropBox = page.getCropBox();
+        this.pageHeight = cropBox.getHeight();
+        this.originX = cropBox.getLowerLeftX();
+        this.originY = cropBox.getLowerLeftY();
+        super.startPage(page);
+    }
+
+    @Override
+    protected void processTextPosition(TextPosition text) {
+        Deadline.check();
+        String unicode = text.getUnicode();
+        if (unicode == null || unicode.indexOf('�') >= 0) {
+            unmappedGlyphs++;
+            return;
+        }
+        if (unicode.isBlank()) return;
+
+        if (text.getDir() != 0) {
+            rotatedGlyphs++;
+        }
+
+        float height = Math.max(text.getHeightDir(), 1f);
+        var box = new BoundingBox(
+                text.getXDirAdj(),
+                text.getYDirAdj() - height,
+                Math.max(text.getWidthDirAdj(), 0f),
+                height
+        );
+
+        glyphs.add(new Glyph(unicode, text.getFontSizeInPt(), isBold(text.getFont()), box));
+    }
+
+    @Override
+    protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+        Deadline.check();
+        switch (operator.getName()) {
+            case OperatorName.APPEND_RECT -> appendRectangle(operands);
+            case OperatorName.MOVE_TO -> currentPoint = toPage(operands, 0);
+            case OperatorName.LINE_TO -> lineTo(operands);
+            case OperatorName.CURVE_TO,
+                 OperatorName.CURVE_TO_REPLICATE_INITIAL_POINT,
+                 OperatorName.CURVE_TO_REPLICATE_FINAL_POINT -> {
+                vectorSegments++;
+                currentPoint = toPage(operands, operands.size() - 2);
+            }
+            case OperatorName.DRAW_OBJECT -> {
+                if (!recordImage(operands)) {
+                    super.processOperator(operator, operands);
+                }
+            }
+            default -> super.processOperator(operator, operands);
+        }
+    }
+
+    private void appendRectangle(List<COSBase> operands) {
+        if (operands.size() < 4 || !allNumbers(operands, 4)) return;
+
+        float x = number(operands, 0);
+        float y = number(operands, 1);
+        float w = number(operands, 2);
+        float h = number(operands, 3);
+
+        var a = toPage(x, y);
+        var b = toPage(x + w, y + h);
+        var box = boxOf(a, b);
+
+        if (box.height() <= RULING_THICKNESS && box.width() > RULING_THICKNESS) {
+            rulings.add(new Ruling(true, box));
+        } else if (box.width() <= RULING_THICKNESS && box.height() > RULING_THICKNESS) {
+            rulings.add(new Ruling(false, box));
+        }
+        currentPoint = a;
+    }
+
+    private void lineTo(List<COSBase> operands) {
+        var end = toPage(operands, 0);
+        if (end == null) return;
+
+        if (currentPoint != null) {
+            float dx = Math.abs(end.x - currentPoint.x);
+            float dy = Math.abs(end.y - currentPoint.y);
+
+            if (dy <= AXIS_TOLERANCE && dx > RULING_THICKNESS) {
+                rulings.add(new Ruling(true, boxOf(currentPoint, end)));
+            } else if (dx <= AXIS_TOLERANCE && dy > RULING_THICKNESS) {
+                rulings.add(new Ruling(false, boxOf(currentPoint, end)));
+            } else {
+                vectorSegments++;
+            }
+        }
+        currentPoint = end;
+    }
+
+    private boolean recordImage(List<COSBase> operands) throws IOException {
+        if (operands.isEmpty() || !(operands.getFirst() instanceof COSName name)) return false;
+
+        PDXObject xobject = getResources().getXObject(name);
+        if (!(xobject instanceof PDImageXObject)) return false;
+
+        Matrix ctm = getGraphicsState().getCurrentTransformationMatrix();
+        var a = toPage(ctm.getTranslateX(), ctm.getTranslateY());
+        var b = toPage(ctm.getTranslateX() + ctm.getScalingFactorX(), ctm.getTranslateY() + ctm.getScalingFactorY());
+        images.add(boxOf(a, b));
+        return true;
+    }
+
+    private Point2D.Float toPage(List<COSBase> operands, int offset) {
+        if (offset < 0 || operands.size() < offset + 2) return null;
+        if (!(operands.get(offset) instanceof COSNumber) || !(operands.get(offset + 1) instanceof COSNumber)) return null;
+
+        var user = getGraphicsState().getCurrentTransformationMatrix()
+                .transformPoint(number(operands, offset), number(operands, offset + 1));
+        return new Point2D.Float(user.x - originX, pageHeight - (user.y - originY));
+    }
+
+    private Point2D.Float toPage(float x, float y) {
+        var user = getGraphicsState().getCurrentTransformationMatrix().transformPoint(x, y);
+        return new Point2D.Float(user.x - originX, pageHeight - (user.y - originY));
+    }
+
+    private static BoundingBox boxOf(Point2D.Float a, Point2D.Float b) {
+        float left = Math.min(a.x, b.x);
+        float top = Math.min(a.y, b.y);
+        return new BoundingBox(left, top, Math.abs(a.x - b.x), Math.abs(a.y - b.y));
+    }
+
+    private static boolean allNumbers(List<COSBase> operands, int count) {
+        for (int i = 0; i < count; i++) {
+            if (!(operands.get(i) instanceof COSNumber)) return false;
+        }
+        return true;
+    }
+
+    private static float number(List<COSBase> operands, int index) {
+        return ((COSNumber) operands.get(index)).floatValue();
+    }
+
+    private static boolean isBold(PDFont font) {
+        if (font == null) return false;
+
+        PDFontDescriptor descriptor = font.getFontDescriptor();
+        if (descriptor != null && (descriptor.isForceBold() || descriptor.getFontWeight() >= BOLD_WEIGHT)) {
+            return true;
+        }
+
+        String name = font.getName();
+        if (name == null) return false;
+        String lower = name.toLowerCase();
+        return lower.contains("bold") || lower.contains("black") || lower.contains("heavy");
+    }
+}
@@ -0,0 +1,119 @@
+package com.splice.extraction;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Time budget of the document being extracted on the current thread, with an optional per-page budget.
+ * Extractors call {@link #check()} from their content stream callbacks, so a pathological stream
+ * stops at the next glyph or operator instead of holding its thread for hours.
+ * Checks are no-ops on threads without a deadline.
+ */
+public final class Deadline implements AutoCloseable {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long documentExpiry;
+    private final long pageBudget;
+    private final Deadline previous;
+    private volatile long pageExpiry = Long.MAX_VALUE;
+
+    private Deadline(long documentExpiry, long pageBudget, Deadline previous) {
+        this.documentExpiry = documentExpiry;
+        this.pageBudget = pageBudget;
+        this.previous = previous;
+    }
+
+    /**
+     * Installs a deadline on the current thread until the returned scope is closed.
+     *
+     * @param document Budget of the whole document; null or non-positive for none.
+     * @param page     Budget of each page, restarted by {@link #startPage()}; null or non-positive for none.
+     */
+    public static Deadline start(Duration document, Duration page) {
+        long now = System.nanoTime();
+        long documentExpiry = isSet(document) ? now + document.toNanos() : Long.MAX_VALUE;
+        long pageBudget = isSet(page) ? page.toNanos() : 0;
+
+        var deadline = new Deadline(documentExpiry, pageBudget, CURRENT.get());
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    /**
+     * Restarts the page budget of the current thread's deadline, if any.
+     */
+    public static void startPage() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && deadline.pageBudget > 0) {
+            deadline.pageExpiry = System.nanoTime() + deadline.pageBudget;
+        }
+    }
+
+    /**
+     * @throws ExtractionTimeoutException If the current thread's document or page is out of time.
+     */
+    public static void check() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.verify();
+        }
+    }
+
+    /**
+     * @return Nanoseconds left before the current thread's document or page runs out of time (possibly
+     * negative), or {@link Long#MAX_VALUE} if it has no deadline.
+     */
+    public static long remainingNanos() {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) return Long.MAX_VALUE;
+
+        long expiry = Math.min(deadline.documentExpiry, deadline.pageExpiry);
+        return expiry == Long.MAX_VALUE ? Long.MAX_VALUE : expiry - System.nanoTime();
+    }
+
+    /**
+     * Wraps a task so that it runs under the current thread's deadline on whichever thread executes it,
+     * e.g. a pool thread working for this one.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) return task;
+
+        return () -> {
+            Deadline outer = CURRENT.get();
+            CURRENT.set(deadline);
+            try {
+                return task.get();
+            } finally {
+                if (outer != null) {
+                    CURRENT.set(outer);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    private void verify() {
+        long now = System.nanoTime();
+        if (documentExpiry != Long.MAX_VALUE && now - documentExpiry > 0) {
+            throw new ExtractionTimeoutException("Document deadline exceeded");
+        }
+        if (pageExpiry != Long.MAX_VALUE && now - pageExpiry > 0) {
+            throw new ExtractionTimeoutException("Page deadline exceeded");
+        }
+    }
+
+    private static boolean isSet(Duration budget) {
+        return budget != null && !budget.isNegative() && !budget.isZero();
+    }
+}
@@ -0,0 +1,12 @@
+package com.splice.extraction;
+
+/**
+ * Thrown from inside extraction when the current document or page ran past its {@link Deadline}.
+ */
+public class ExtractionTimeoutException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ExtractionTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,351 @@
+package com.splice.extraction.pdf;
+
+import com.splice.model.document.DocumentElement;
+import com.splice.model.layout.PageLayout;
+
+import org.apache.pdfbox.cos.*;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Bounded on-disk cache of extracted pages, keyed by a hash of everything a page's extraction depends on:
+ * its content streams, its resources (fonts, images, forms, recursively), its boxes and rotation, its
+ * annotations (rendered with it, so feeding its layout) and the extraction settings. A page left unchanged in a new revision of a document, even at another
+ * position, is then read back instead of being rendered, laid out and extracted again.
+ * <p>
+ * Entries are JSON files evicted least recently used first once the cache outgrows its budget.
+ * Writes go through a temporary file and an atomic move; an entry evicted by another process
+ * sharing the directory is a miss. Thread-safe.
+ */
+public class PageCache {
+    private static final Logger logger = LoggerFactory.getLogger(PageCache.class);
+
+    /**
+     * Bumped whenever extraction changes, so entries written by older versions are never hit.
+     */
+    private static final String FORMAT_VERSION = "3";
+    private static final String ENTRY_EXTENSION = ".json";
+
+    /**
+     * @param layout   Layout the page was extracted with.
+     * @param elements The page's elements in reading order, before boilerplate and section passes.
+     */
+    public record Entry(PageLayout layout, List<DocumentElement> elements) {}
+
+    private final Path root;
+    private final long maxBytes;
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * Opens the cache in a directory, picking up the entries left there by earlier runs.
+     *
+     * @param maxBytes Size the entries may take on disk before the least recently used are deleted.
+     */
+    public PageCache(Path root, long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Page cache budget must be positive. Received: " + maxBytes);
+        }
+        this.root = root;
+        this.maxBytes = maxBytes;
+
+        Files.createDirectories(root);
+        record Existing(String key, long size, FileTime lastUsed) {}
+        List<Existing> existing = new ArrayList<>();
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(ENTRY_EXTENSION)) continue;
+                try {
+                    existing.add(new Existing(name.substring(0, name.length() - ENTRY_EXTENSION.length()),
+                            Files.size(file), Files.getLastModifiedTime(file)));
+                } catch (IOException e) {
+                    logger.debug("Skipping unreadable page cache entry: {}", file);
+                }
+            }
+        }
+        existing.sort(Comparator.comparing(Existing::lastUsed));
+        for (Existing entry : existing) {
+            sizes.put(entry.key(), entry.size());
+            totalBytes += entry.size();
+        }
+        evict();
+    }
+
+    /**
+     * @return The cached page, or {@code null} on a miss.
+     */
+    public Entry get(String key) {
+        synchronized (this) {
+            // get, not containsKey, so the entry becomes the most recently used
+            if (sizes.get(key) == null) return null;
+        }
+
+        Path file = fileOf(key);
+        try {
+            Entry entry = mapper.readValue(file.toFile(), Entry.class);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return entry;
+        } catch (IOException | JacksonException e) {
+            logger.debug("Dropping unreadable page cache entry: {}", file, e);
+            synchronized (this) {
+                Long size = sizes.remove(key);
+                if (size != null) totalBytes -= size;
+            }
+            return null;
+        }
+    }
+
+    public void put(String key, Entry entry) {
+        Path file = fileOf(key);
+        try {
+            Path temp = Files.createTempFile(root, key, ".tmp");
+            try {
+                mapper.writeValue(temp.toFile(), entry);
+                long size = Files.size(temp);
+                moveAtomically(temp, file);
+
+                synchronized (this) {
+                    Long previous = sizes.put(key, size);
+                    totalBytes += size - (previous != null ? previous : 0);
+                    evict();
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException | JacksonException e) {
+            // A page that cannot be cached is simply extracted again next time
+            logger.warn("Could not cache page: {}", file, e);
+        }
+    }
+
+    /**
+     * Hashes everything the extraction of a single page depends on. Use {@link Keys} for the pages of a document.
+     *
+     * @param settings The extraction settings the entry is only valid for.
+     * @return The key of the page in any cache.
+     */
+    public static String keyOf(PDPage page, String settings) throws IOException {
+        return new Keys(settings).keyOf(page);
+    }
+
+    private Path fileOf(String key) {
+        return root.resolve(key + ENTRY_EXTENSION);
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = sizes.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(fileOf(entry.getKey()));
+            } catch (IOException e) {
+                logger.debug("Could not evict page cache entry: {}", entry.getKey(), e);
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Keys the pages of one document. A COS object graph is fed into a digest with dictionaries in key
+     * order and streams with their raw bytes; each dictionary and stream is digested on its own and
+     * its digest kept, so fonts and images shared by many pages are read for the first of them only.
+     * <p>
+     * Not thread-safe: use one per document.
+     */
+    public static final class Keys {
+        /**
+         * Returned by {@link #hash} for an object that refers back to no enclosing dictionary.
+         */
+        private static final int SELF_CONTAINED = Integer.MAX_VALUE;
+        /**
+         * Links from an annotation to its page, its parent field or other annotations, none of which it
+         * is drawn from; followed, they would lead through the page tree to the whole document.
+         */
+        private static final Set<COSName> ANNOTATION_LINKS = Set.of(
+                COSName.P, COSName.PARENT, COSName.POPUP, COSName.getPDFName("IRT"));
+
+        private final byte[] prefix;
+        private final Map<COSDictionary, byte[]> digests = new IdentityHashMap<>();
+        // Dictionaries being hashed, by nesting depth; a reference back to one of them closes a cycle
+        private final Map<COSDictionary, Integer> open = new IdentityHashMap<>();
+        private final byte[] buffer = new byte[8192];
+
+        /**
+         * @param settings The extraction settings the entries are only valid for.
+         */
+        public Keys(String settings) {
+            this.prefix = (FORMAT_VERSION + '\0' + settings + '\0').getBytes(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Hashes everything the extraction of a page depends on.
+         *
+         * @return The key of the page in any cache.
+         */
+        public String keyOf(PDPage page) throws IOException {
+            MessageDigest digest = newDigest();
+            digest.update(prefix);
+
+            hash(page.getCOSObject().getDictionaryObject(COSName.CONTENTS), digest);
+            // Resources and boxes may be inherited from the page tree
+            hash(page.getResources() != null ? page.getResources().getCOSObject() : null, digest);
+            hash(page.getMediaBox().getCOSArray(), digest);
+            hash(page.getCropBox().getCOSArray(), digest);
+            tag(digest, Integer.toString(page.getRotation()));
+            // Annotation appearances are rendered with the page, so they feed its layout
+            hashAnnotations(page.getCOSObject().getCOSArray(COSName.ANNOTS), digest);
+
+            return HexFormat.of().formatHex(digest.digest());
+        }
+
+        /**
+         * @return The depth of the outermost open dictionary the object refers back to,
+         *         or {@link #SELF_CONTAINED}.
+         */
+        private int hash(COSBase base, MessageDigest digest) throws IOException {
+            if (base instanceof COSObject reference) base = reference.getObject();
+
+            switch (base) {
+                case null -> tag(digest, "n");
+                case COSNull ignored -> tag(digest, "n");
+                case COSDictionary dictionary -> {
+                    return hashDictionary(dictionary, digest);
+                }
+                case COSArray array -> {
+                    tag(digest, "a" + array.size());
+                    int outermost = SELF_CONTAINED;
+                    for (int i = 0; i < array.size(); i++) {
+                        outermost = Math.min(outermost, hash(array.get(i), digest));
+                    }
+                    return outermost;
+                }
+                case COSString string -> {
+                    tag(digest, "t" + string.getBytes().length);
+                    digest.update(string.getBytes());
+                }
+                default -> tag(digest, base.toString());
+            }
+            return SELF_CONTAINED;
+        }
+
+        private void hashAnnotations(COSArray annotations, MessageDigest digest) throws IOException {
+            if (annotations == null) {
+                tag(digest, "n");
+                return;
+            }
+            tag(digest, "a" + annotations.size());
+            for (int i = 0; i < annotations.size(); i++) {
+                if (!(annotations.getObject(i) instanceof COSDictionary annotation)) {
+                    tag(digest, "n");
+                    continue;
+                }
+                tag(digest, "d");
+                List<COSName> keys = new ArrayList<>(annotation.keySet());
+                keys.removeAll(ANNOTATION_LINKS);
+                keys.sort(Comparator.comparing(COSName::getName));
+                for (COSName key : keys) {
+                    tag(digest, key.getName());
+                    hash(annotation.getItem(key), digest);
+                }
+                tag(digest, "e");
+            }
+        }
+
+        private int hashDictionary(COSDictionary dictionary, MessageDigest digest) throws IOException {
+            byte[] known = digests.get(dictionary);
+            if (known != null) {
+                tag(digest, "h");
+                digest.update(known);
+                return SELF_CONTAINED;
+            }
+
+            Integer depth = open.get(dictionary);
+            if (depth != null) {
+                // Counted from the innermost open dictionary, so a cycle hashes the same wherever it is entered
+                tag(digest, "r" + (open.size() - 1 - depth));
+                return depth;
+            }
+
+            int own = open.size();
+            open.put(dictionary, own);
+            MessageDigest inner = newDigest();
+            int outermost = SELF_CONTAINED;
+            try {
+                tag(inner, dictionary instanceof COSStream ? "s" : "d");
+                List<COSName> keys = new ArrayList<>(dictionary.keySet());
+                keys.sort(Comparator.comparing(COSName::getName));
+                for (COSName key : keys) {
+                    tag(inner, key.getName());
+                    outermost = Math.min(outermost, hash(dictionary.getItem(key), inner));
+                }
+                if (dictionary instanceof COSStream stream) {
+                    try (InputStream raw = stream.createRawInputStream()) {
+                        for (int read; (read = raw.read(buffer)) > 0; ) {
+                            inner.update(buffer, 0, read);
+                        }
+                    }
+                }
+                tag(inner, "e");
+            } finally {
+                open.remove(dictionary);
+            }
+
+            byte[] value = inner.digest();
+            tag(digest, "h");
+            digest.update(value);
+            if (outermost < own) {
+                // Refers back to an enclosing dictionary, so it hashes differently when entered elsewhere
+                return outermost;
+            }
+            digests.put(dictionary, value);
+            return SELF_CONTAINED;
+        }
+
+        private static void tag(MessageDigest digest, String value) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
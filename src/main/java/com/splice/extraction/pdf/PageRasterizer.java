@@ -0,0 +1,137 @@
+package com.splice.extraction.pdf;
+
+import com.splice.detection.LayoutDetector;
+import com.splice.extraction.Deadline;
+import com.splice.detection.Letterbox;
+import com.splice.model.geometry.BoundingBox;
+import com.splice.model.layout.LayoutElement;
+import com.splice.model.layout.PageLayout;
+
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.PageDrawer;
+import org.apache.pdfbox.rendering.PageDrawerParameters;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Renders pages for layout detection.
+ * When the detector has a fixed input size, pages are rasterised straight into a letterboxed,
+ * reusable canvas of that size; otherwise they are rendered at the configured DPI.
+ * Not thread-safe: one instance per document.
+ */
+class PageRasterizer {
+    private static final float POINTS_PER_INCH = 72f;
+    private static final Color PADDING_COLOR = new Color(114, 114, 114);
+
+    private final PDFRenderer renderer;
+    private final PDDocument document;
+    private final LayoutDetector detector;
+    private final float renderDpi;
+    private final int inputSize;
+    private final boolean grayscale;
+
+    private BufferedImage canvas;
+
+    PageRasterizer(PDDocument document, LayoutDetector detector, float renderDpi) {
+        this.document = document;
+        this.detector = detector;
+        this.renderer = new DeadlineAwareRenderer(document);
+        this.renderDpi = renderDpi;
+        this.inputSize = detector.inputSize();
+        this.grayscale = detector.isGrayscale();
+    }
+
+    /**
+     * Renders a page and runs the detector on it, returning a layout whose boxes are in PDF points.
+     */
+    PageLayout detect(int pageNumber) throws Exception {
+        int pageIndex = pageNumber - 1;
+
+        if (inputSize <= 0) {
+            var imageType = grayscale ? ImageType.GRAY : ImageType.RGB;
+            BufferedImage img = renderer.renderImageWithDPI(pageIndex, renderDpi, imageType);
+            float pointsPerPixel = POINTS_PER_INCH / renderDpi;
+
+            PageLayout layout = detector.detect(img, pageNumber);
+            return pointsPerPixel == 1f ? layout : rescale(layout, box -> scale(box, pointsPerPixel));
+        }
+
+        PDPage page = document.getPage(pageIndex);
+        PDRectangle cropBox = page.getCropBox();
+        boolean rotated = page.getRotation() % 180 != 0;
+        float pageWidth = rotated ? cropBox.getHeight() : cropBox.getWidth();
+        float pageHeight = rotated ? cropBox.getWidth() : cropBox.getHeight();
+
+        var letterbox = Letterbox.fit(pageWidth, pageHeight, inputSize);
+
+        PageLayout layout = detector.detect(renderLetterboxed(pageIndex, letterbox), pageNumber);
+        return rescale(layout, letterbox::toSource);
+    }
+
+    private BufferedImage renderLetterboxed(int pageIndex, Letterbox letterbox) throws IOException {
+        if (canvas == null) {
+            int type = grayscale ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB;
+            canvas = new BufferedImage(inputSize, inputSize, type);
+        }
+
+        var graphics = canvas.createGraphics();
+        try {
+            graphics.setBackground(PADDING_COLOR);
+            graphics.clearRect(0, 0, inputSize, inputSize);
+
+            graphics.translate(letterbox.offsetX(), letterbox.offsetY());
+            graphics.setBackground(Color.WHITE);
+            graphics.clearRect(0, 0, letterbox.contentWidth(), letterbox.contentHeight());
+
+            renderer.renderPageToGraphics(pageIndex, graphics, letterbox.scale());
+        } finally {
+            graphics.dispose();
+        }
+        return canvas;
+    }
+
+    private PageLayout rescale(PageLayout layout, UnaryOperator<BoundingBox> mapping) {
+        if (layout == null) return null;
+
+        List<LayoutElement> elements = layout.elements().stream()
+                .map(e -> new LayoutElement(e.confidence(), e.type(), mapping.apply(e.box())))
+                .toList();
+
+        return new PageLayout(layout.pageNumber(), elements);
+    }
+
+    private static BoundingBox scale(BoundingBox box, float factor) {
+        return new BoundingBox(box.x() * factor, box.y() * factor, box.width() * factor, box.height() * factor);
+    }
+
+    /**
+     * Checks the current {@link Deadline} between drawing operators, so that a pathological page
+     * cannot keep the renderer busy past its budget.
+     */
+    private static final class DeadlineAwareRenderer extends PDFRenderer {
+        private DeadlineAwareRenderer(PDDocument document) {
+            super(document);
+        }
+
+        @Override
+        protected PageDrawer createPageDrawer(PageDrawerParameters parameters) throws IOException {
+            return new PageDrawer(parameters) {
+                @Override
+                protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+                    Deadline.check();
+                    super.processOperator(operator, operands);
+                }
+            };
+        }
+    }
+}
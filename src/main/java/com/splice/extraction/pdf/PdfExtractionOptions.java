@@ -0,0 +1,86 @@
+package com.splice.extraction.pdf;
+
+import com.splice.detection.heuristic.HeuristicLayoutDetector;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Tunables of the PDF extraction pipeline.
+ *
+ * @param renderDpi           Resolution used to render pages for detectors without a fixed input size.
+ * @param structuralFastPath  Lay out born-digital pages from their content stream and only render the rest.
+ * @param complexityThreshold Page complexity score above which the fast path defers to visual detection.
+ * @param loadStrategy        How documents are read and where their stream buffers live.
+ * @param streamCacheBudget   Bytes of stream buffers kept in memory per document before spilling to temp files.
+ * @param boilerplateAfter    Pages a text must recur on, at about the same place, before it is dropped as
+ *                            boilerplate; {@code 0} keeps everything.
+ * @param pageCache           Directory of the cache of extracted pages, or {@code null} for none.
+ * @param pageCacheBudget     Bytes the page cache may take on disk before its least recently used pages are evicted.
+ */
+public record PdfExtractionOptions(float renderDpi, boolean structuralFastPath, double complexityThreshold,
+                                   PdfLoadStrategy loadStrategy, long streamCacheBudget, int boilerplateAfter,
+                                   Path pageCache, long pageCacheBudget) {
+    public static final float DEFAULT_RENDER_DPI = 72f;
+    public static final long DEFAULT_STREAM_CACHE_BUDGET = 64L * 1024 * 1024;
+    public static final long DEFAULT_PAGE_CACHE_BUDGET = 512L * 1024 * 1024;
+
+    public static final PdfExtractionOptions DEFAULTS = new PdfExtractionOptions(
+            DEFAULT_RENDER_DPI, false, HeuristicLayoutDetector.DEFAULT_COMPLEXITY_THRESHOLD,
+            PdfLoadStrategy.AUTO, DEFAULT_STREAM_CACHE_BUDGET, 0,
+            null, DEFAULT_PAGE_CACHE_BUDGET);
+
+    public PdfExtractionOptions {
+        if (renderDpi <= 0) {
+            throw new IllegalArgumentException("Render DPI must be positive. Received: " + renderDpi);
+        }
+        if (complexityThreshold < 0 || complexityThreshold > 1) {
+            throw new IllegalArgumentException("Complexity threshold must be within [0, 1]. Received: " + complexityThreshold);
+        }
+        Objects.requireNonNull(loadStrategy);
+        if (streamCacheBudget < 0) {
+            throw new IllegalArgumentException("Stream cache budget cannot be negative. Received: " + streamCacheBudget);
+        }
+        if (boilerplateAfter < 0 || boilerplateAfter == 1) {
+            throw new IllegalArgumentException("Boilerplate threshold must be zero or at least two pages. Received: " + boilerplateAfter);
+        }
+        if (pageCacheBudget <= 0) {
+            throw new IllegalArgumentException("Page cache budget must be positive. Received: " + pageCacheBudget);
+        }
+    }
+
+    public PdfExtractionOptions withRenderDpi(float renderDpi) {
+        return new PdfExtractionOptions(renderDpi, structuralFastPath, complexityThreshold, loadStrategy, streamCacheBudget,
+                boilerplateAfter, pageCache, pageCacheBudget);
+    }
+
+    public PdfExtractionOptions withStructuralFastPath(boolean structuralFastPath) {
+        return new PdfExtractionOptions(renderDpi, structuralFastPath, complexityThreshold, loadStrategy, streamCacheBudget,
+                boilerplateAfter, pageCache, pageCacheBudget);
+    }
+
+    public PdfExtractionOptions withComplexityThreshold(double complexityThreshold) {
+        return new PdfExtractionOptions(renderDpi, structuralFastPath, complexityThreshold, loadStrategy, streamCacheBudget,
+                boilerplateAfter, pageCache, pageCacheBudget);
+    }
+
+    public PdfExtractionOptions withLoadStrategy(PdfLoadStrategy loadStrategy) {
+        return new PdfExtractionOptions(renderDpi, structuralFastPath, complexityThreshold, loadStrategy, streamCacheBudget,
+                boilerplateAfter, pageCache, pageCacheBudget);
+    }
+
+    public PdfExtractionOptions withStreamCacheBudget(long streamCacheBudget) {
+        return new PdfExtractionOptions(renderDpi, structuralFastPath, complexityThreshold, loadStrategy, streamCacheBudget,
+                boilerplateAfter, pageCache, pageCacheBudget);
+    }
+
+    public PdfExtractionOptions withBoilerplateAfter(int boilerplateAfter) {
+        return new PdfExtractionOptions(renderDpi, structuralFastPath, complexityThreshold, loadStrategy, streamCacheBudget,
+                boilerplateAfter, pageCache, pageCacheBudget);
+    }
+
+    public PdfExtractionOptions withPageCache(Path pageCache, long pageCacheBudget) {
+        return new PdfExtractionOptions(renderDpi, structuralFastPath, complexityThreshold, loadStrategy, streamCacheBudget,
+                boilerplateAfter, pageCache, pageCacheBudget);
+    }
+}
@@ -1,99 +1,221 @@
 package com.splice.extraction.pdf;
 
 import com.splice.detection.LayoutDetector;
+import com.splice.detection.StructuralLayoutDetector;
+import com.splice.detection.heuristic.HeuristicLayoutDetector;
+import com.splice.extraction.Deadline;
 import com.splice.extraction.DocumentExtractor;
+import com.splice.extraction.ExtractionTimeoutException;
 import com.splice.extraction.pdf.image.ImageExtractor;
 import com.splice.extraction.pdf.table.TableExtractor;
 import com.splice.extraction.pdf.text.TextExtractor;
 import com.splice.extraction.spi.AssetStorage;
 import com.splice.extraction.spi.ExtractorProvider;
+import com.splice.layout.BoilerplateFilter;
+import com.splice.layout.ReadingOrder;
+import com.splice.layout.SectionTracker;
 import com.splice.model.document.*;
+import com.splice.model.geometry.BoundingBox;
 import com.splice.model.layout.PageLayout;
 
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.io.IOUtils;
-import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
 
 import technology.tabula.*;
 
-import java.awt.image.BufferedImage;
 import java.nio.file.Path;
 import java.io.*;
 import java.util.*;
 
 
 public class PdfExtractor implements DocumentExtractor {
+    public static final float DEFAULT_RENDER_DPI = PdfExtractionOptions.DEFAULT_RENDER_DPI;
+
     private final AssetStorage assetStorage;
     private final LayoutDetector layoutDetector;
+    private final PdfExtractionOptions options;
+    private final PageCache pageCache;
 
     public PdfExtractor(AssetStorage assetStorage, LayoutDetector layoutDetector) {
+        this(assetStorage, layoutDetector, PdfExtractionOptions.DEFAULTS);
+    }
+
+    /**
+     * @param renderDpi Resolution used to render pages for detectors without a fixed input size.
+     *                  Detectors that declare one get pages rasterised directly at that size.
+     */
+    public PdfExtractor(AssetStorage assetStorage, LayoutDetector layoutDetector, float renderDpi) {
+        this(assetStorage, layoutDetector, PdfExtractionOptions.DEFAULTS.withRenderDpi(renderDpi));
+    }
+
+    public PdfExtractor(AssetStorage assetStorage, LayoutDetector layoutDetector, PdfExtractionOptions options) {
+        this(assetStorage, layoutDetector, options, openPageCache(options));
+    }
+
+    /**
+     * @param pageCache Cache shared with other extractors, or {@code null} to extract every page.
+     */
+    public PdfExtractor(AssetStorage assetStorage, LayoutDetector layoutDetector, PdfExtractionOptions options,
+                        PageCache pageCache) {
         this.assetStorage = assetStorage;
         this.layoutDetector = layoutDetector;
+        this.options = Objects.requireNonNull(options);
+        this.pageCache = pageCache;
+    }
+
+    public static final ExtractorProvider PROVIDER = provider(PdfExtractionOptions.DEFAULTS);
+
+    public static ExtractorProvider provider(PdfExtractionOptions options) {
+        // One cache for all the documents the provider creates extractors for
+        PageCache pageCache = openPageCache(options);
+        var loader = new PdfLoader(options.loadStrategy(), options.streamCacheBudget());
+
+        return new ExtractorProvider() {
+            @Override
+            public boolean supports(Path path) {
+                return path.getFileName().toString().toLowerCase().endsWith(".pdf");
+            }
+
+            @Override
+            public DocumentExtractor create(AssetStorage storage, LayoutDetector detector) {
+                return new PdfExtractor(storage, detector, options, pageCache);
+            }
+
+            @Override
+            public int probePageCount(Path path) {
+                // PDFBox parses the trailer and cross-reference data up front (seeking to each object offset
+                // to validate it) and every other object lazily, so of the objects only the catalog and the
+                // page tree root are read. A broken cross-reference table is rebuilt by scanning the whole file.
+                try (var document = loader.probe(path)) {
+                    return document.getNumberOfPages();
+                } catch (IOException e) {
+                    return -1;
+                }
+            }
+
+            @Override
+            public String sampleText(Path path, int maxPages) {
+                try (var document = loader.load(path)) {
+                    var stripper = new SamplingStripper();
+                    stripper.setEndPage(maxPages);
+                    return stripper.getText(document);
+                } catch (IOException e) {
+                    return null;
+                }
+            }
+        };
     }
 
-    public static final ExtractorProvider PROVIDER = new ExtractorProvider() {
+    /**
+     * Plain text stripper that stops at the current thread's deadline, like the extraction passes.
+     */
+    private static final class SamplingStripper extends PDFTextStripper {
         @Override
-        public boolean supports(Path path) {
-            return path.getFileName().toString().toLowerCase().endsWith(".pdf");
+        protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+            Deadline.check();
+            super.processOperator(operator, operands);
         }
 
         @Override
-        public DocumentExtractor create(AssetStorage storage, LayoutDetector detector) {
-            return new PdfExtractor(storage, detector);
+        protected void processTextPosition(TextPosition text) {
+            Deadline.check();
+            super.processTextPosition(text);
         }
-    };
+    }
 
     @Override
     public IngestedDocument extract(Path path) throws IOException {
         var tableExtractor = new TableExtractor();
         var textExtractor = new TextExtractor();
         var imageExtractor = new ImageExtractor(assetStorage);
+        var sections = new SectionTracker();
+        var boilerplate = options.boilerplateAfter() > 0 ? new BoilerplateFilter(options.boilerplateAfter()) : null;
 
         List<DocumentElement> allElements = new ArrayList<>();
         DocumentMetadata metadata;
-        File file = path.toFile();
 
-        try (var document = Loader.loadPDF(file, IOUtils.createTempFileOnlyStreamCache());
+        var loader = new PdfLoader(options.loadStrategy(), options.streamCacheBudget());
+
+        try (var document = loader.load(path);
              var tabulaExtractor = new ObjectExtractor(document)) {
-            PageIterator tabulaIterator = tabulaExtractor.extract();
+            var rasterizer = new PageRasterizer(document, layoutDetector, options.renderDpi());
+            StructuralLayoutDetector structuralDetector = options.structuralFastPath()
+                    ? new HeuristicLayoutDetector(options.complexityThreshold())
+                    : null;
+
+            var pageKeys = pageCache != null ? new PageCache.Keys(cacheSettings()) : null;
 
-            int pageNumber = 1;
+            int pageCount = document.getNumberOfPages();
             long start = System.currentTimeMillis();
 
-            while (tabulaIterator.hasNext()) {
-                var tabulaPage = tabulaIterator.next();
+            for (int pageNumber = 1; pageNumber <= pageCount; pageNumber++) {
                 var standardPage = document.getPage(pageNumber - 1);
+                Deadline.startPage();
 
-                var pdfRenderer = new PDFRenderer(document);
-                BufferedImage img = pdfRenderer.renderImageWithDPI(pageNumber - 1, 72);
-
-                PageLayout pageLayout = layoutDetector.detect(img, pageNumber);
-
-                for(var layoutElement : pageLayout.elements()) {
-                    var type = layoutElement.type();
-                    var region = layoutElement.box();
-
-                    switch (type) {
-                        case IMAGE:
-                            var imageElements = imageExtractor.extractRegion(standardPage, pageNumber, region);
-                            allElements.addAll(imageElements);
-                            System.out.println("Image: " + imageElements);
-                            break;
-                        case TABLE:
-                            var tableElements = tableExtractor.extractRegion(tabulaPage, region);
-                            allElements.addAll(tableElements);
-                            System.out.println("Table: " + tableElements);
-                            break;
-                        default:
-                            var textElements = textExtractor.extractRegion(document, pageNumber, region, layoutElement);
-                            System.out.println("Text: " + textElements);
-                            allElements.addAll(textElements);
+                String cacheKey = pageKeys != null && !drawsImages(standardPage) ? pageKeys.keyOf(standardPage) : null;
+                PageCache.Entry cached = cacheKey != null ? pageCache.get(cacheKey) : null;
+
+                List<DocumentElement> ordered;
+                if (cached != null) {
+                    ordered = relocate(cached.elements(), pageNumber);
+                } else {
+                    PageLayout pageLayout = structuralDetector != null
+                            ? structuralDetector.detect(document, pageNumber)
+                            : null;
+                    if (pageLayout == null) {
+                        pageLayout = rasterizer.detect(pageNumber);
+                    }
+
+                    List<DocumentElement> pageElements = new ArrayList<>();
+                    List<BoundingBox> tableRegions = new ArrayList<>();
+
+                    for(var layoutElement : pageLayout.elements()) {
+                        Deadline.check();
+                        var type = layoutElement.type();
+                        var region = layoutElement.box();
+
+                        switch (type) {
+                            case IMAGE:
+                                var imageElements = imageExtractor.extractRegion(standardPage, pageNumber, region);
+                                pageElements.addAll(imageElements);
+                                System.out.println("Image: " + imageElements);
+                                break;
+                            case TABLE:
+                                // Extracted together below, so the regions of a page run concurrently
+                                tableRegions.add(region);
+                                break;
+                            default:
+                                var textElements = textExtractor.extractRegion(document, pageNumber, region, layoutElement);
+                                System.out.println("Text: " + textElements);
+                                pageElements.addAll(textElements);
+                        }
+                    }
+
+                    if (!tableRegions.isEmpty()) {
+                        // Tabula parses the page once more, so only pages with tables pay for it
+                        var tableElements = tableExtractor.extractRegions(tabulaExtractor.extract(pageNumber), tableRegions);
+                        pageElements.addAll(tableElements);
+                    }
+
+                    ordered = ReadingOrder.sort(pageElements, e -> e.location().bbox());
+
+                    if (cacheKey != null) {
+                        pageCache.put(cacheKey, new PageCache.Entry(pageLayout, ordered));
                     }
                 }
-                pageNumber++;
-            }
 
-            allElements.sort(DocumentElement.READING_ORDER);
+                if (boilerplate != null) {
+                    ordered = boilerplate.filter(ordered);
+                }
+                allElements.addAll(sections.assign(ordered));
+            }
 
             long duration = System.currentTimeMillis() - start;
 
@@ -103,6 +225,8 @@ public class PdfExtractor implements DocumentExtractor {
                 document.getNumberOfPages(),
                 duration
             );
+        } catch (ExtractionTimeoutException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -110,6 +234,69 @@ public class PdfExtractor implements DocumentExtractor {
         return new IngestedDocument(UUID.randomUUID().toString(), metadata, allElements);
     }
 
+    private static PageCache openPageCache(PdfExtractionOptions options) {
+        if (options.pageCache() == null) return null;
+        try {
+            return new PageCache(options.pageCache(), options.pageCacheBudget());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open page cache: " + options.pageCache(), e);
+        }
+    }
+
+    /**
+     * The settings a cached page is only valid for: those changing layout or extraction.
+     */
+    private String cacheSettings() {
+        return "dpi=" + options.renderDpi()
+                + ";fast=" + options.structuralFastPath()
+                + ";complexity=" + options.complexityThreshold()
+                + ";detector=" + (layoutDetector != null
+                        ? layoutDetector.modelId() + ";input=" + layoutDetector.inputSize()
+                                + ";grayscale=" + layoutDetector.isGrayscale()
+                        : "none");
+    }
+
+    /**
+     * Whether the resources of a page, or of the forms it draws, hold images. The elements of such a
+     * page may point into this document's asset directory, so the page is neither cached nor keyed.
+     */
+    private static boolean drawsImages(PDPage page) {
+        PDResources resources = page.getResources();
+        return resources != null && holdsImages(resources.getCOSObject(), Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static boolean holdsImages(COSDictionary resources, Set<COSDictionary> visited) {
+        if (resources == null || !visited.add(resources)) return false;
+
+        COSDictionary xobjects = resources.getCOSDictionary(COSName.XOBJECT);
+        if (xobjects == null) return false;
+        for (COSName name : xobjects.keySet()) {
+            if (!(xobjects.getDictionaryObject(name) instanceof COSStream xobject)) continue;
+            if (COSName.IMAGE.equals(xobject.getCOSName(COSName.SUBTYPE))
+                    || holdsImages(xobject.getCOSDictionary(COSName.RESOURCES), visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves cached elements to the page they were found on, with fresh ids.
+     */
+    private static List<DocumentElement> relocate(List<DocumentElement> cached, int pageNumber) {
+        List<DocumentElement> elements = new ArrayList<>(cached.size());
+        for (DocumentElement element : cached) {
+            elements.add(new DocumentElement(
+                    UUID.randomUUID().toString(),
+                    element.type(),
+                    new Location(pageNumber, element.location().bbox()),
+                    null,
+                    element.content()
+            ));
+        }
+        return elements;
+    }
+
     private String getFileName(Path path) {
         return path.getFileName().toString().toLowerCase();
     }
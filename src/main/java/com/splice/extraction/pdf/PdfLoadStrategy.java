@@ -0,0 +1,27 @@
+package com.splice.extraction.pdf;
+
+/**
+ * How a PDF is read and where PDFBox keeps the scratch buffers of its streams.
+ */
+public enum PdfLoadStrategy {
+    /**
+     * Picks one of the strategies below per file, from its size and the free heap.
+     */
+    AUTO,
+    /**
+     * The whole file is read into the heap and streams are buffered in memory; for small files.
+     */
+    IN_MEMORY,
+    /**
+     * The file is memory-mapped and streams are buffered in memory up to a budget, then spilled to temp files.
+     */
+    MEMORY_MAPPED,
+    /**
+     * The file is read through a buffered channel and streams are buffered in memory up to a budget, then spilled to temp files.
+     */
+    MIXED,
+    /**
+     * The file is read through a buffered channel and every stream is buffered in a temp file.
+     */
+    TEMP_FILE
+}
@@ -0,0 +1,100 @@
+package com.splice.extraction.pdf;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.*;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Opens PDFs according to a {@link PdfLoadStrategy}, resolving {@link PdfLoadStrategy#AUTO} per file.
+ */
+final class PdfLoader {
+    private static final Logger logger = LoggerFactory.getLogger(PdfLoader.class);
+
+    /**
+     * Largest file read entirely into the heap by {@link PdfLoadStrategy#AUTO}.
+     */
+    static final long IN_MEMORY_LIMIT = 32L * 1024 * 1024;
+
+    /**
+     * Heap that must remain free per byte of a file read into memory; decoded streams are several times larger than the file.
+     */
+    private static final int IN_MEMORY_HEADROOM = 8;
+
+    private final PdfLoadStrategy strategy;
+    private final long streamCacheBudget;
+
+    PdfLoader(PdfLoadStrategy strategy, long streamCacheBudget) {
+        this.strategy = strategy;
+        this.streamCacheBudget = streamCacheBudget;
+    }
+
+    PDDocument load(Path path) throws IOException {
+        long size = Files.size(path);
+        long availableHeap = availableHeap();
+        PdfLoadStrategy resolved = resolve(strategy, size, availableHeap);
+        logger.debug("Loading {} ({} bytes) with {}", path.getFileName(), size, resolved);
+
+        RandomAccessRead source = switch (resolved) {
+            case IN_MEMORY -> new RandomAccessReadBuffer(Files.readAllBytes(path));
+            case MEMORY_MAPPED -> new RandomAccessReadMemoryMappedFile(path);
+            default -> new RandomAccessReadBufferedFile(path);
+        };
+        return open(source, streamCache(resolved, availableHeap));
+    }
+
+    /**
+     * Opens a document only to read its catalog and page tree root. The stream cache follows the strategy,
+     * but the file is always read through a buffered window: reading it into the heap or mapping it
+     * would cost more than the probe itself.
+     */
+    PDDocument probe(Path path) throws IOException {
+        long availableHeap = availableHeap();
+        PdfLoadStrategy resolved = resolve(strategy, Files.size(path), availableHeap);
+        return open(new RandomAccessReadBufferedFile(path), streamCache(resolved, availableHeap));
+    }
+
+    private static PDDocument open(RandomAccessRead source, RandomAccessStreamCache.StreamCacheCreateFunction streamCache)
+            throws IOException {
+        try {
+            return Loader.loadPDF(source, streamCache);
+        } catch (IOException | RuntimeException e) {
+            source.close();
+            throw e;
+        }
+    }
+
+    static PdfLoadStrategy resolve(PdfLoadStrategy strategy, long size, long availableHeap) {
+        if (strategy != PdfLoadStrategy.AUTO) return strategy;
+        if (size <= IN_MEMORY_LIMIT && size * IN_MEMORY_HEADROOM <= availableHeap) {
+            return PdfLoadStrategy.IN_MEMORY;
+        }
+        // A single mapping cannot exceed 2 GiB
+        return size <= Integer.MAX_VALUE ? PdfLoadStrategy.MEMORY_MAPPED : PdfLoadStrategy.MIXED;
+    }
+
+    private RandomAccessStreamCache.StreamCacheCreateFunction streamCache(PdfLoadStrategy resolved, long availableHeap) {
+        return switch (resolved) {
+            case IN_MEMORY -> IOUtils.createMemoryOnlyStreamCache();
+            case TEMP_FILE -> IOUtils.createTempFileOnlyStreamCache();
+            default -> {
+                // Several documents are open at once, so each gets at most a quarter of the free heap
+                long budget = Math.min(streamCacheBudget, availableHeap / 4);
+                yield budget > 0
+                        ? MemoryUsageSetting.setupMixed(budget).streamCache
+                        : IOUtils.createTempFileOnlyStreamCache();
+            }
+        };
+    }
+
+    private static long availableHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    }
+}
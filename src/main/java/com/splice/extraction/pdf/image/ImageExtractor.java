@@ -1,5 +1,6 @@
 package com.splice.extraction.pdf.image;
 
+import com.splice.extraction.Deadline;
 import com.splice.extraction.spi.AssetStorage;
 import com.splice.model.document.*;
 import com.splice.model.document.content.ImageContent;
@@ -14,6 +15,7 @@ import org.apache.pdfbox.contentstream.operator.state.Save;
 import org.apache.pdfbox.contentstream.operator.state.SetMatrix;
 import org.apache.pdfbox.cos.COSBase;
 import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.graphics.PDXObject;
 import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
@@ -24,16 +26,36 @@ import java.awt.geom.Rectangle2D;
 import java.io.IOException;
 import java.util.*;
 
+/**
+ * Extracts the images drawn on a page. The content stream of a page is parsed once and its image
+ * placements cached, so the region queries of all the layout elements of a page are answered
+ * from that single pass. Each placement is returned once per page, to the first query that
+ * overlaps it, and each image XObject is stored once per document however often it is drawn.
+ */
 public class ImageExtractor extends PDFStreamEngine {
     private static final float MIN_DISPLAY_WIDTH = 50.0f;
     private static final float MIN_DISPLAY_HEIGHT = 50.0f;
 
     private final AssetStorage imageStorage;
-    private final List<DocumentElement> extractedImages = new ArrayList<>();
+    private final Map<COSStream, String> storedPaths = new IdentityHashMap<>();
 
+    private PDPage cachedPage;
     private int currentPageNumber;
     private float currentPageHeight;
-    private BoundingBox regionOfInterest;
+    private List<Placement> placements = new ArrayList<>();
+
+    private static final class Placement {
+        private final PDImageXObject image;
+        private final BoundingBox box;
+        private final Rectangle2D.Float rect;
+        private boolean claimed;
+
+        private Placement(PDImageXObject image, BoundingBox box) {
+            this.image = image;
+            this.box = box;
+            this.rect = new Rectangle2D.Float(box.x(), box.y(), box.width(), box.height());
+        }
+    }
 
     public ImageExtractor(AssetStorage imageStorage) {
         this.imageStorage = imageStorage;
@@ -48,21 +70,62 @@ public class ImageExtractor extends PDFStreamEngine {
         return extractRegion(page, pageNumber, null);
     }
 
+    /**
+     * @param region Area of the page in top-left coordinates, or {@code null} for the whole page.
+     * @return The images of the page overlapping the region that no earlier query on this page returned.
+     */
     public List<DocumentElement> extractRegion(PDPage page, int pageNumber, BoundingBox region) throws IOException {
         if(page == null) return List.of();
 
-        this.extractedImages.clear();
+        if (page != cachedPage || pageNumber != currentPageNumber) {
+            collectPlacements(page, pageNumber);
+        }
+
+        Rectangle2D.Float regionRect = region == null ? null : new Rectangle2D.Float(
+                region.x(), region.y(), region.width(), region.height()
+        );
+
+        List<DocumentElement> results = new ArrayList<>();
+        for (Placement placement : placements) {
+            if (placement.claimed) continue;
+            if (regionRect != null && !regionRect.intersects(placement.rect)) continue;
+
+            placement.claimed = true;
+            results.add(new DocumentElement(
+                    UUID.randomUUID().toString(),
+                    ElementType.IMAGE,
+                    new Location(pageNumber, placement.box),
+                    null, // Will be extracted separately
+                    new ImageContent(store(placement.image), null)
+            ));
+        }
+        return results;
+    }
+
+    private void collectPlacements(PDPage page, int pageNumber) throws IOException {
+        this.cachedPage = null;
+        this.placements = new ArrayList<>();
         this.currentPageNumber = pageNumber;
         this.currentPageHeight = page.getCropBox().getHeight();
-        this.regionOfInterest = region;
 
         processPage(page);
 
-        return new ArrayList<>(this.extractedImages);
+        // Only cached once the pass completed, so an interrupted pass is redone
+        this.cachedPage = page;
+    }
+
+    private String store(PDImageXObject image) throws IOException {
+        String path = storedPaths.get(image.getCOSObject());
+        if (path == null) {
+            path = imageStorage.store(image, String.valueOf(currentPageNumber));
+            storedPaths.put(image.getCOSObject(), path);
+        }
+        return path;
     }
 
     @Override
     protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+        Deadline.check();
         String operation = operator.getName();
         if (OperatorName.DRAW_OBJECT.equals(operation)) {
             COSName objectName = (COSName) operands.getFirst();
@@ -78,7 +141,7 @@ public class ImageExtractor extends PDFStreamEngine {
         }
     }
 
-    private void processImageInstance(PDImageXObject image) throws IOException {
+    private void processImageInstance(PDImageXObject image) {
         Matrix ctm = getGraphicsState().getCurrentTransformationMatrix();
 
         float displayWidth = ctm.getScalingFactorX();
@@ -91,32 +154,6 @@ public class ImageExtractor extends PDFStreamEngine {
         }
 
         float yWeb = currentPageHeight - yPdf - displayHeight;
-        BoundingBox imageBox = new BoundingBox(xPdf, yWeb, displayWidth, displayHeight);
-
-        if (this.regionOfInterest != null) {
-            Rectangle2D.Float regionRect = new Rectangle2D.Float(
-                    regionOfInterest.x(), regionOfInterest.y(),
-                    regionOfInterest.width(), regionOfInterest.height()
-            );
-
-            Rectangle2D.Float imgRect = new Rectangle2D.Float(
-                    imageBox.x(), imageBox.y(),
-                    imageBox.width(), imageBox.height()
-            );
-
-            if (!regionRect.intersects(imgRect)) {
-                return;
-            }
-        }
-
-        String storedPath = imageStorage.store(image, String.valueOf(currentPageNumber));
-
-        extractedImages.add(new DocumentElement(
-                UUID.randomUUID().toString(),
-                ElementType.IMAGE,
-                new Location(currentPageNumber, imageBox),
-                null, // Will be extracted separately
-                new ImageContent(storedPath, null)
-        ));
+        placements.add(new Placement(image, new BoundingBox(xPdf, yWeb, displayWidth, displayHeight)));
     }
-}
\ No newline at end of file
+}
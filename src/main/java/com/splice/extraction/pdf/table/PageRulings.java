@@ -0,0 +1,89 @@
+package com.splice.extraction.pdf.table;
+
+import technology.tabula.*;
+import technology.tabula.extractors.ExtractionAlgorithm;
+import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ruling analysis of a whole page, shared by every table query on it: the collapsed horizontal and
+ * vertical rulings, and the lattice cells found at their intersections. It is read-only once built,
+ * so region extractions running concurrently can share it.
+ */
+final class PageRulings {
+    /**
+     * Tabula's order of tables: by top edge, with a tolerance for vertical overlap, then by left edge.
+     * It is not transitive, so it is only used through {@link Utils#sort}, as Tabula does, never {@link List#sort}.
+     */
+    @SuppressWarnings("deprecation")
+    private static final Comparator<Rectangle> TABLE_ORDER = Rectangle.ILL_DEFINED_ORDER;
+
+    private final Page page;
+    private final List<Ruling> horizontals;
+    private final List<Ruling> verticals;
+    private final List<Cell> cells;
+
+    PageRulings(Page page) {
+        this.page = page;
+        this.horizontals = List.copyOf(page.getHorizontalRulings());
+        this.verticals = List.copyOf(page.getVerticalRulings());
+        this.cells = List.copyOf(SpreadsheetExtractionAlgorithm.findCells(horizontals, verticals));
+    }
+
+    boolean isFor(Page page) {
+        return this.page == page;
+    }
+
+    /**
+     * Bounds of the ruled tables of the page, as {@code SpreadsheetDetectionAlgorithm} reports them.
+     */
+    List<Rectangle> latticeAreas() {
+        List<Rectangle> areas = new ArrayList<>(SpreadsheetExtractionAlgorithm.findSpreadsheetsFromCells(cells));
+        Utils.sort(areas, TABLE_ORDER);
+        return areas;
+    }
+
+    /**
+     * Builds the ruled tables whose cells are centred in a region, the way
+     * {@code SpreadsheetExtractionAlgorithm} does, without analysing the rulings again.
+     *
+     * @return The tables, or an empty list if no lattice cell lies in the region.
+     */
+    List<Table> latticeTables(Rectangle region, ExtractionAlgorithm algorithm) {
+        List<Cell> regionCells = new ArrayList<>();
+        for (Cell cell : cells) {
+            if (region.contains(cell.getCenterX(), cell.getCenterY())) {
+                // Copied, since filling in the text mutates the cell
+                regionCells.add(new Cell(cell.getTop(), cell.getLeft(), (float) cell.getWidth(), (float) cell.getHeight()));
+            }
+        }
+        if (regionCells.isEmpty()) return List.of();
+
+        List<Table> tables = new ArrayList<>();
+        for (Rectangle area : SpreadsheetExtractionAlgorithm.findSpreadsheetsFromCells(regionCells)) {
+            List<Cell> areaCells = new ArrayList<>();
+            for (Cell cell : regionCells) {
+                if (cell.intersects(area)) {
+                    cell.setTextElements(TextElement.mergeWords(page.getText(cell)));
+                    areaCells.add(cell);
+                }
+            }
+
+            List<Ruling> areaHorizontals = new ArrayList<>();
+            for (Ruling ruling : horizontals) {
+                if (area.intersectsLine(ruling)) areaHorizontals.add(ruling);
+            }
+            List<Ruling> areaVerticals = new ArrayList<>();
+            for (Ruling ruling : verticals) {
+                if (area.intersectsLine(ruling)) areaVerticals.add(ruling);
+            }
+
+            tables.add(new TableWithRulingLines(area, areaCells, areaHorizontals, areaVerticals, algorithm));
+        }
+        Utils.sort(tables, TABLE_ORDER);
+        return tables;
+    }
+}
@@ -1,41 +1,66 @@
 package com.splice.extraction.pdf.table;
 
+import com.splice.model.document.content.TableCell;
 import com.splice.model.document.content.TableContent;
 import com.splice.model.geometry.BoundingBox;
 import com.splice.model.document.*;
 
+import com.splice.extraction.Deadline;
+import com.splice.extraction.ExtractionTimeoutException;
+
 import technology.tabula.*;
 import technology.tabula.detectors.*;
 import technology.tabula.extractors.*;
-import technology.tabula.writers.CSVWriter;
 
 import java.awt.geom.Rectangle2D;
-import java.io.IOException;
 import java.util.*;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Finds and extracts the tables of a page with Tabula. The rulings of a page are analysed once
+ * into lattice cells shared by all of its zones ({@link PageRulings}). Zones are extracted
+ * concurrently on a bounded pool: each zone's sub-page is cut on the calling thread, which also
+ * builds the page's shared text index, and each task then runs its own algorithm instances under
+ * the caller's {@link Deadline}. Results are merged in zone order, so the output does not depend on scheduling.
+ */
 public class TableExtractor {
     private static final double LATTICE_COVERAGE_THRESHOLD = 0.50;
+    private static final float SPAN_EDGE_TOLERANCE = 1.0f;
 
-    private final SpreadsheetExtractionAlgorithm latticeExtractor;
-    private final BasicExtractionAlgorithm streamExtractor;
+    private static final Executor SHARED_POOL = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            Thread.ofPlatform().name("splice-tables-", 0).daemon().factory());
 
-    private final DetectionAlgorithm latticeDetector;
     private final DetectionAlgorithm streamDetector;
 
-    private final CSVWriter csvWriter;
-
     private final TableZoneRefiner zoneRefiner;
 
+    private final Executor executor;
+
+    private PageRulings rulings;
+
+    /**
+     * Extracts zones on a pool shared by all extractors and sized to the processor count.
+     */
     public TableExtractor() {
-        this.latticeExtractor = new SpreadsheetExtractionAlgorithm();
-        this.streamExtractor = new BasicExtractionAlgorithm();
+        this(SHARED_POOL);
+    }
 
-        this.latticeDetector = new SpreadsheetDetectionAlgorithm();
+    /**
+     * @param executor Runs the extraction of individual zones; {@code Runnable::run} extracts them on the calling thread.
+     */
+    public TableExtractor(Executor executor) {
         this.streamDetector = new NurminenDetectionAlgorithm();
 
-        this.csvWriter = new CSVWriter();
-
         this.zoneRefiner = new TableZoneRefiner();
+
+        this.executor = Objects.requireNonNull(executor);
     }
 
     public List<DocumentElement> extract(Page page) {
@@ -48,38 +73,47 @@ public class TableExtractor {
         List<ExtractionTask> tasksToExecute = detect(page);
 
         List<Table> tables = executeTasks(page, tasksToExecute, zonesToExclude);
-        tables.removeIf(TableValidator::isNoise);
 
         return transformToDocumentElements(tables, page.getPageNumber());
     }
 
     public List<DocumentElement> extractRegion(Page page, BoundingBox region) {
-        if (page == null || region == null) return List.of();
-
-        float top = region.y();
-        float left = region.x();
-        float bottom = region.y() + region.height();
-        float right = region.x() + region.width();
-
-        Page workingArea = page.getArea(top, left, bottom, right);
-
-        List<Rectangle> latticeLines = latticeDetector.detect(workingArea);
-        boolean useLattice = !latticeLines.isEmpty();
+        if (region == null) return List.of();
+        return extractRegions(page, List.of(region));
+    }
 
-        List<Table> tables;
-        if (useLattice) {
-            tables = latticeExtractor.extract(workingArea);
-        } else {
-            tables = streamExtractor.extract(workingArea);
+    /**
+     * Extracts the tables of several layout regions of a page at once. A region holding lattice
+     * cells of the page's ruling analysis is extracted as a ruled table, any other with the stream
+     * algorithm.
+     *
+     * @return The tables of all regions, in region order.
+     */
+    public List<DocumentElement> extractRegions(Page page, List<BoundingBox> regions) {
+        if (page == null || regions.isEmpty()) return List.of();
+
+        PageRulings pageRulings = rulingsOf(page);
+
+        List<Supplier<List<Table>>> extractions = new ArrayList<>();
+        for (var region : regions) {
+            var bounds = new Rectangle(region.y(), region.x(), region.width(), region.height());
+            Page workingArea = page.getArea(bounds);
+
+            extractions.add(() -> {
+                List<Table> lattice = pageRulings.latticeTables(bounds, new SpreadsheetExtractionAlgorithm());
+                return lattice.isEmpty() ? new BasicExtractionAlgorithm().extract(workingArea) : lattice;
+            });
         }
 
+        List<Table> tables = runAll(extractions);
+
         return transformToDocumentElements(tables, page.getPageNumber());
     }
 
     private List<ExtractionTask> detect(Page page) {
         List<ExtractionTask> tasks = new ArrayList<>();
 
-        List<Rectangle> latticeCandidates = latticeDetector.detect(page);
+        List<Rectangle> latticeCandidates = rulingsOf(page).latticeAreas();
         List<Rectangle> streamCandidates  = streamDetector.detect(page);
 
         List<Rectangle> allCandidates = new ArrayList<>();
@@ -119,14 +153,13 @@ public class TableExtractor {
     }
 
     private List<Table> executeTasks(Page page, List<ExtractionTask> tasks, List<Rectangle2D.Float> awtZonesToExclude) {
-        List<Table> tables = new ArrayList<>();
-
         List<technology.tabula.Rectangle> tabulaExclusions = awtZonesToExclude.stream()
                 .map(this::convertAwtToTabula)
                 .toList();
 
+        List<Supplier<List<Table>>> extractions = new ArrayList<>();
+
         for(var task : tasks) {
-            var workingMethod = task.method;
             var region = task.bounds();
 
             boolean isExcluded = tabulaExclusions.stream().anyMatch(exclusion -> {
@@ -139,14 +172,66 @@ public class TableExtractor {
                 continue;
             }
 
-            var workingArea = page.getArea(region);
+            if (task.method() == ExtractionMethod.LATTICE) {
+                PageRulings pageRulings = rulingsOf(page);
+                extractions.add(() -> pageRulings.latticeTables(region, new SpreadsheetExtractionAlgorithm()));
+            } else {
+                var workingArea = page.getArea(region);
+                extractions.add(() -> new BasicExtractionAlgorithm().extract(workingArea));
+            }
+        }
+
+        return runAll(extractions);
+    }
 
-            if (workingMethod == ExtractionMethod.LATTICE)
-                tables.addAll(latticeExtractor.extract(workingArea));
-            else if (workingMethod == ExtractionMethod.STREAM)
-                tables.addAll(streamExtractor.extract(workingArea));
+    /**
+     * Analyses the rulings of a page once for all of its table queries; pages are visited in turn,
+     * so only the last one is kept.
+     */
+    private PageRulings rulingsOf(Page page) {
+        if (rulings == null || !rulings.isFor(page)) {
+            rulings = new PageRulings(page);
         }
+        return rulings;
+    }
+
+    /**
+     * Runs the extractions concurrently and concatenates their results in input order,
+     * waiting no longer than the caller's deadline allows.
+     */
+    private List<Table> runAll(List<Supplier<List<Table>>> extractions) {
+        if (extractions.size() <= 1) {
+            return extractions.isEmpty() ? new ArrayList<>() : new ArrayList<>(extractions.getFirst().get());
+        }
+
+        List<CompletableFuture<List<Table>>> futures = extractions.stream()
+                .map(extraction -> CompletableFuture.supplyAsync(Deadline.propagate(() -> {
+                    // A zone still queued when time runs out never starts
+                    Deadline.check();
+                    return extraction.get();
+                }), executor))
+                .toList();
 
+        List<Table> tables = new ArrayList<>();
+        try {
+            for (var future : futures) {
+                Deadline.check();
+                long remaining = Deadline.remainingNanos();
+                tables.addAll(remaining == Long.MAX_VALUE
+                        ? future.get()
+                        : future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS));
+            }
+        } catch (TimeoutException e) {
+            throw new ExtractionTimeoutException("Table extraction ran past the deadline");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExtractionTimeoutException("Table extraction interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException("Table extraction failed", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+        }
         return tables;
     }
 
@@ -154,14 +239,8 @@ public class TableExtractor {
         List<DocumentElement> documentElements = new ArrayList<>();
 
         for(var t : tables) {
-            if (t.getRows().isEmpty()) {
-                continue;
-            }
-            boolean isEmptyText = t.getRows().stream()
-                    .flatMap(Collection::stream)
-                    .allMatch(cell -> cell.getText().trim().isEmpty());
-
-            if (isEmptyText) {
+            // Also rejects empty tables, before any cell is materialised
+            if (TableValidator.isNoise(t)) {
                 continue;
             }
 
@@ -169,7 +248,7 @@ public class TableExtractor {
                     (float) t.getMinX(), (float) t.getMinY(), (float) t.getWidth(), (float) t.getHeight()
             ));
 
-            var tableContent = new TableContent(convertTableToCsvString(t));
+            var tableContent = toTableContent(t);
 
             var documentElement = new DocumentElement(
                     UUID.randomUUID().toString(),
@@ -185,14 +264,56 @@ public class TableExtractor {
         return documentElements;
     }
 
-    private String convertTableToCsvString(Table table) {
-        StringBuilder stringBuilder = new StringBuilder();
-        try {
-            csvWriter.write(stringBuilder, table);
-        } catch (IOException e) {
-            throw new RuntimeException("Critical error while writing CSV to memory", e);
+    @SuppressWarnings("rawtypes") // Table.getRows() exposes the raw RectangularTextContainer
+    private TableContent toTableContent(Table table) {
+        List<List<RectangularTextContainer>> rows = table.getRows();
+        int rowCount = rows.size();
+        int colCount = rows.stream().mapToInt(List::size).max().orElse(0);
+
+        // Grid lines of a ruled table, to measure how many rows and columns a merged cell covers
+        List<Float> rowEdges = new ArrayList<>();
+        List<Float> colEdges = new ArrayList<>();
+        for (var row : rows) {
+            for (var container : row) {
+                if (container instanceof Cell cell) {
+                    rowEdges.add(cell.getTop());
+                    colEdges.add(cell.getLeft());
+                }
+            }
+        }
+
+        List<TableCell> cells = new ArrayList<>();
+        for (int r = 0; r < rowCount; r++) {
+            var row = rows.get(r);
+            for (int c = 0; c < row.size(); c++) {
+                var container = row.get(c);
+                if (container == TextChunk.EMPTY || (container instanceof Cell cell && cell.isPlaceholder())) {
+                    continue;
+                }
+
+                int rowSpan = 1;
+                int colSpan = 1;
+                if (container instanceof Cell cell && cell.isSpanning()) {
+                    rowSpan = Math.min(rowCount - r, spanOf(rowEdges, cell.getTop(), cell.getBottom()));
+                    colSpan = Math.min(colCount - c, spanOf(colEdges, cell.getLeft(), cell.getRight()));
+                }
+
+                cells.add(new TableCell(r, c, rowSpan, colSpan, new BoundingBox(
+                        container.getLeft(), container.getTop(), (float) container.getWidth(), (float) container.getHeight()
+                ), container.getText()));
+            }
         }
-        return stringBuilder.toString().trim() + "\n";
+
+        return new TableContent(rowCount, colCount, cells);
+    }
+
+    private int spanOf(List<Float> edges, float start, float end) {
+        long inside = edges.stream()
+                .filter(edge -> edge > start + SPAN_EDGE_TOLERANCE && edge < end - SPAN_EDGE_TOLERANCE)
+                .map(edge -> Math.round(edge))
+                .distinct()
+                .count();
+        return (int) inside + 1;
     }
 
     private technology.tabula.Rectangle convertAwtToTabula(Rectangle2D.Float awtRect) {
@@ -2,7 +2,7 @@ package com.splice.extraction.pdf.table;
 
 import technology.tabula.Table;
 
-import java.util.*;
+import java.util.BitSet;
 
 public class TableValidator {
 
@@ -15,72 +15,58 @@ public class TableValidator {
     private static final double MAX_AVG_TEXT_LENGTH = 150.0;
     private static final int MAX_SINGLE_CELL_LENGTH = 500;
 
+    /**
+     * Decides in a single pass over the cells whether a detected table is layout noise: too few
+     * filled rows, columns or cells, too sparse, or holding prose rather than tabular values.
+     * An oversized cell ends the pass immediately.
+     */
     public static boolean isNoise(Table table) {
         if (table == null) return true;
 
-        TableTopology topology = analyzeTopology(table);
-
-        if (topology.effectiveRows < MIN_EFFECTIVE_ROWS ||
-                topology.effectiveCols < MIN_EFFECTIVE_COLS ||
-                topology.filledCellCount < MIN_EFFECTIVE_CELLS) {
-            return true;
-        }
-
-        TableMetrics metrics = calculateEffectiveMetrics(topology);
-
-        if (metrics.effectiveSparsity > MAX_EFFECTIVE_SPARSITY) return true;
-        if (metrics.avgCellLength > MAX_AVG_TEXT_LENGTH) return true;
-
-        return metrics.maxCellLength > MAX_SINGLE_CELL_LENGTH;
-    }
-
-
-    private static TableTopology analyzeTopology(Table table) {
-        Set<Integer> nonEmptyRowIndices = new HashSet<>();
-        Set<Integer> nonEmptyColIndices = new HashSet<>();
+        BitSet filledRows = new BitSet();
+        BitSet filledCols = new BitSet();
         long totalCharCount = 0;
-        int maxLen = 0;
         int filledCells = 0;
 
         var rows = table.getRows();
         for (int r = 0; r < rows.size(); r++) {
             var row = rows.get(r);
             for (int c = 0; c < row.size(); c++) {
-                String text = row.get(c).getText().trim();
+                int len = trimmedLength(row.get(c).getText());
+                if (len == 0) continue;
 
-                if (!text.isEmpty()) {
-                    nonEmptyRowIndices.add(r);
-                    nonEmptyColIndices.add(c);
+                if (len > MAX_SINGLE_CELL_LENGTH) return true;
 
-                    filledCells++;
-                    int len = text.length();
-                    totalCharCount += len;
-                    if (len > maxLen) maxLen = len;
-                }
+                filledRows.set(r);
+                filledCols.set(c);
+                filledCells++;
+                totalCharCount += len;
             }
         }
 
-        return new TableTopology(
-                nonEmptyRowIndices.size(),
-                nonEmptyColIndices.size(),
-                filledCells,
-                totalCharCount,
-                maxLen
-        );
-    }
-
-    private static TableMetrics calculateEffectiveMetrics(TableTopology topo) {
-        int theoreticalArea = topo.effectiveRows * topo.effectiveCols;
-
-        if (theoreticalArea == 0) return new TableMetrics(1.0, 0, 0);
+        int effectiveRows = filledRows.cardinality();
+        int effectiveCols = filledCols.cardinality();
 
-        double sparsity = 1.0 - ((double) topo.filledCellCount / theoreticalArea);
+        if (effectiveRows < MIN_EFFECTIVE_ROWS ||
+                effectiveCols < MIN_EFFECTIVE_COLS ||
+                filledCells < MIN_EFFECTIVE_CELLS) {
+            return true;
+        }
 
-        double avgLen = (topo.filledCellCount == 0) ? 0 : (double) topo.totalCharCount / topo.filledCellCount;
+        double sparsity = 1.0 - ((double) filledCells / (effectiveRows * effectiveCols));
+        if (sparsity > MAX_EFFECTIVE_SPARSITY) return true;
 
-        return new TableMetrics(sparsity, avgLen, topo.maxLen());
+        return (double) totalCharCount / filledCells > MAX_AVG_TEXT_LENGTH;
     }
 
-    private record TableTopology(int effectiveRows, int effectiveCols, int filledCellCount, long totalCharCount, int maxLen) {}
-    private record TableMetrics(double effectiveSparsity, double avgCellLength, int maxCellLength) {}
-}
\ No newline at end of file
+    /**
+     * Length of {@code text.trim()} without building the trimmed string.
+     */
+    private static int trimmedLength(String text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+        return end - start;
+    }
+}
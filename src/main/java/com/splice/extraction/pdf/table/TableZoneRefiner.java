@@ -3,42 +3,82 @@ package com.splice.extraction.pdf.table;
 import com.splice.model.geometry.BoundingBox;
 import technology.tabula.Rectangle;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 
+/**
+ * Merges overlapping table candidates into disjoint zones, so no area of the page is extracted twice.
+ * Overlapping pairs are found with a sweep along the x-axis and grouped with a union-find, which
+ * also catches chains of overlaps (A-B, B-C). The union of a group can grow into a zone it did not
+ * touch before, so passes repeat until no two zones overlap.
+ */
 public class TableZoneRefiner {
     public List<Rectangle> refine(List<Rectangle> rawRectangles) {
         if (rawRectangles == null || rawRectangles.isEmpty()) {
             return new ArrayList<>();
         }
 
-        List<Rectangle> sortedRectangles = new ArrayList<>(rawRectangles);
+        List<BoundingBox> zones = rawRectangles.stream().map(this::toBoundingBox).toList();
 
-        sortedRectangles.sort(Comparator.comparingDouble(Rectangle::getTop)
-                .thenComparingDouble(Rectangle::getLeft));
+        List<BoundingBox> merged;
+        while ((merged = mergeOverlappingZones(zones)).size() < zones.size()) {
+            zones = merged;
+        }
 
-        return mergeOverlappingRectangles(sortedRectangles);
+        return merged.stream()
+                .sorted(Comparator.comparingDouble(BoundingBox::y).thenComparingDouble(BoundingBox::x))
+                .map(this::toTabulaRectangle)
+                .toList();
     }
 
-    private List<Rectangle> mergeOverlappingRectangles(List<Rectangle> sortedRectangles) {
-        List<Rectangle> mergedRectangles = new ArrayList<>();
-
-        BoundingBox currentBuffer = toBoundingBox(sortedRectangles.getFirst());
+    /**
+     * One pass: unions every group of transitively overlapping zones. Runs in O(n log n + k)
+     * for k overlapping pairs.
+     */
+    private List<BoundingBox> mergeOverlappingZones(List<BoundingBox> zones) {
+        int n = zones.size();
+        Integer[] byLeft = new Integer[n];
+        for (int i = 0; i < n; i++) byLeft[i] = i;
+        Arrays.sort(byLeft, Comparator.comparingDouble(i -> zones.get(i).x()));
 
-        for (int i = 1; i < sortedRectangles.size(); i++) {
-            BoundingBox next = toBoundingBox(sortedRectangles.get(i));
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
 
-            if (currentBuffer.intersects(next)) {
-                currentBuffer = currentBuffer.union(next);
-            } else {
-                mergedRectangles.add(toTabulaRectangle(currentBuffer));
-                currentBuffer = next;
+        // Zones whose x-extent still reaches the sweep position, the first to end at the head
+        PriorityQueue<Integer> active = new PriorityQueue<>(Comparator.comparingDouble(i -> zones.get(i).getRightX()));
+        for (int index : byLeft) {
+            BoundingBox zone = zones.get(index);
+            while (!active.isEmpty() && zones.get(active.peek()).getRightX() <= zone.x()) {
+                active.poll();
+            }
+            for (int other : active) {
+                if (zone.intersects(zones.get(other))) {
+                    union(parent, index, other);
+                }
             }
+            active.add(index);
+        }
+
+        Map<Integer, BoundingBox> groups = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            groups.merge(find(parent, i), zones.get(i), BoundingBox::union);
         }
+        return new ArrayList<>(groups.values());
+    }
 
-        mergedRectangles.add(toTabulaRectangle(currentBuffer));
-        return mergedRectangles;
+    private int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
     }
 
     private BoundingBox toBoundingBox(Rectangle r) {
@@ -48,4 +88,4 @@ public class TableZoneRefiner {
     private Rectangle toTabulaRectangle(BoundingBox b) {
         return new Rectangle(b.y(), b.x(), b.width(), b.height());
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,10 @@
 package com.splice.extraction.pdf.text;
 
+import com.splice.extraction.Deadline;
 import com.splice.extraction.pdf.text.internal.TextAtom;
 import com.splice.extraction.pdf.text.internal.TextBlock;
 import com.splice.extraction.pdf.text.internal.TextLine;
+import com.splice.layout.ReadingOrder;
 
 import com.splice.model.geometry.BoundingBox;
 import com.splice.model.document.DocumentElement;
@@ -11,6 +13,8 @@ import com.splice.model.document.Location;
 import com.splice.model.document.content.TextContent;
 
 import com.splice.model.layout.LayoutElement;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
@@ -24,6 +28,7 @@ public class TextExtractor extends PDFTextStripperByArea {
     private static final float MAX_CHAR_DISTANCE_FACTOR = 3.0f;
     private static final float MAX_LINE_SPACING_FACTOR = 1.5f;
     private static final float TITLE_SIZE_FACTOR = 1.3f;
+    private static final float MIN_COLUMN_WIDTH_RATIO = 0.2f;
 
     private final List<TextAtom> pageAtoms = new ArrayList<>();
 
@@ -74,20 +79,25 @@ public class TextExtractor extends PDFTextStripperByArea {
             throw new RuntimeException("Error while extracting region on page " + pageNumber, e);
         }
 
-        pageAtoms.sort(TextAtom.READING_ORDER);
+        List<TextAtom> atoms = ReadingOrder.sortByLines(pageAtoms, TextAtom::box);
 
-        List<TextLine> lines = formLines(pageAtoms);
+        List<TextLine> lines = orderByColumns(formLines(atoms));
         List<TextBlock> blocks = formBlocks(lines);
 
-        blocks.sort(TextBlock.READING_ORDER);
-
         ElementType typeHint = (layoutElement != null) ? layoutElement.type() : null;
 
         return transformToDocumentElements(blocks, pageNumber, typeHint);
     }
 
+    @Override
+    protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+        Deadline.check();
+        super.processOperator(operator, operands);
+    }
+
     @Override
     protected void processTextPosition(TextPosition text) {
+        Deadline.check();
         if (text.getUnicode() == null || text.getUnicode().isBlank()) return;
 
         Rectangle2D.Float atomBox = new Rectangle2D.Float(
@@ -148,6 +158,23 @@ public class TextExtractor extends PDFTextStripperByArea {
         return lines;
     }
 
+    /**
+     * Puts the lines in reading order with an XY-cut over their boxes, so the lines of each
+     * column follow each other and form blocks together instead of alternating between columns.
+     */
+    private List<TextLine> orderByColumns(List<TextLine> lines) {
+        if (lines.size() < 2) return lines;
+
+        float left = Float.POSITIVE_INFINITY;
+        float right = Float.NEGATIVE_INFINITY;
+        for (TextLine line : lines) {
+            left = Math.min(left, line.getBox().x());
+            right = Math.max(right, line.getBox().getRightX());
+        }
+
+        return ReadingOrder.sort(lines, TextLine::getBox, (right - left) * MIN_COLUMN_WIDTH_RATIO);
+    }
+
     private List<TextBlock> formBlocks(List<TextLine> lines) {
         List<TextBlock> blocks = new ArrayList<>();
         TextBlock currentBlock = null;
@@ -180,8 +207,8 @@ public class TextExtractor extends PDFTextStripperByArea {
                     UUID.randomUUID().toString(),
                     elementType,
                     new Location(pageNumber, block.getBox()),
-                    null, // Context will be extracted by parent
-                    new TextContent(block.getText())
+                    null, // Filled in document order by SectionTracker
+                    new TextContent(block.getText(), block.getAverageFontSize())
                 ))
                 .toList();
     }
@@ -57,9 +57,6 @@ public class TextBlock {
         return sumFontSize / charCount;
     }
 
-    public static final Comparator<TextBlock> READING_ORDER =
-            (b1, b2) -> BoundingBox.compareReadingOrder(b1.getBox(), b2.getBox());
-
     public boolean accepts(TextLine line, float maxDistanceFactor) {
         if(lines.isEmpty()) return true;
 
@@ -8,4 +8,23 @@ public interface ExtractorProvider {
     boolean supports(Path path);
 
     DocumentExtractor create(AssetStorage storage, LayoutDetector detector);
-}
\ No newline at end of file
+
+    /**
+     * Cheaply counts the pages of a document, for scheduling. Must not extract anything.
+     *
+     * @return The page count, or a value {@code <= 0} when unknown.
+     */
+    default int probePageCount(Path path) {
+        return -1;
+    }
+
+    /**
+     * Cheaply reads the plain text of the first pages of a document, to recognise near-duplicates
+     * before extracting them. Must not run layout analysis.
+     *
+     * @return The text, or {@code null} when it cannot be read this way.
+     */
+    default String sampleText(Path path, int maxPages) {
+        return null;
+    }
+}
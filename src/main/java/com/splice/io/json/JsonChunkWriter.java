@@ -0,0 +1,35 @@
+package com.splice.io.json;
+
+import com.splice.model.document.Chunk;
+
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Writes chunks as JSON Lines, one object per line, as they are produced.
+ */
+public class JsonChunkWriter implements Consumer<Chunk>, AutoCloseable {
+    public static final String FILE_EXTENSION = ".chunks.jsonl";
+
+    private final SequenceWriter writer;
+
+    public JsonChunkWriter(Path destinationFile) {
+        this.writer = JsonMapper.builder().build()
+                .writerFor(Chunk.class)
+                .withRootValueSeparator("\n")
+                .writeValues(destinationFile);
+    }
+
+    @Override
+    public void accept(Chunk chunk) {
+        writer.write(chunk);
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+    }
+}
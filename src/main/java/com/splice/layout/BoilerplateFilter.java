@@ -0,0 +1,101 @@
+package com.splice.layout;
+
+import com.splice.model.document.DocumentElement;
+import com.splice.model.document.ElementType;
+import com.splice.model.document.content.TextContent;
+import com.splice.model.geometry.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drops running headers, footers and other boilerplate recurring across the pages of a document.
+ * Each short text is keyed by its normalised content (case and spacing ignored, and in page headers
+ * and footers digits too, so page numbers match) and its position rounded to a grid, and counted in
+ * a fixed-size sketch. Once a key has been seen on enough pages, its later occurrences are dropped;
+ * pages are fed one at a time. Titles and section headers are never dropped, since numbered
+ * headings ("Article 3", "Article 4") often recur at the same place.
+ * <p>
+ * Not thread-safe: use one filter per document.
+ */
+public final class BoilerplateFilter {
+    /**
+     * Longer texts are body text, however often they recur.
+     */
+    private static final int MAX_LENGTH = 200;
+    /**
+     * Grid, in points, that positions are rounded to before hashing.
+     */
+    private static final float POSITION_GRID = 12f;
+    private static final int SKETCH_WIDTH = 4096;
+    private static final int SKETCH_DEPTH = 4;
+
+    private final int threshold;
+    private final CountMinSketch sketch = new CountMinSketch(SKETCH_WIDTH, SKETCH_DEPTH);
+
+    /**
+     * @param threshold Pages a text must appear on before its occurrences are dropped, from that page on.
+     */
+    public BoilerplateFilter(int threshold) {
+        if (threshold < 2) {
+            throw new IllegalArgumentException("Boilerplate must recur on at least two pages. Received: " + threshold);
+        }
+        this.threshold = threshold;
+    }
+
+    /**
+     * @param pageElements The elements of the next page.
+     * @return The elements that are not recurring boilerplate, in the same order.
+     */
+    public List<DocumentElement> filter(List<DocumentElement> pageElements) {
+        List<DocumentElement> kept = new ArrayList<>(pageElements.size());
+        // A text repeated within a page still counts once for that page
+        Map<Long, Boolean> recurring = new HashMap<>();
+
+        for (DocumentElement element : pageElements) {
+            ElementType type = element.type();
+            if (!(element.content() instanceof TextContent text) || text.text() == null
+                    || text.text().length() > MAX_LENGTH
+                    || type == ElementType.TITLE || type == ElementType.SECTION_HEADER) {
+                kept.add(element);
+                continue;
+            }
+
+            boolean running = type == ElementType.PAGE_HEADER || type == ElementType.PAGE_FOOTER;
+            long key = key(text.text(), running, element.location().bbox());
+            if (!recurring.computeIfAbsent(key, k -> sketch.add(k) >= threshold)) {
+                kept.add(element);
+            }
+        }
+
+        return kept;
+    }
+
+    /**
+     * @param foldDigits Whether digits are all hashed as {@code 0}, so "Page 3" matches "Page 4".
+     */
+    private static long key(String text, boolean foldDigits, BoundingBox box) {
+        long hash = 0xCBF29CE484222325L;
+        boolean started = false;
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && started) {
+                hash = (hash ^ ' ') * 0x100000001B3L;
+            }
+            pendingSpace = false;
+            started = true;
+            char normalised = foldDigits && Character.isDigit(c) ? '0' : Character.toLowerCase(c);
+            hash = (hash ^ normalised) * 0x100000001B3L;
+        }
+        hash = (hash ^ Math.round(box.x() / POSITION_GRID)) * 0x100000001B3L;
+        hash = (hash ^ Math.round(box.y() / POSITION_GRID)) * 0x100000001B3L;
+        return hash;
+    }
+}
@@ -0,0 +1,49 @@
+package com.splice.layout;
+
+/**
+ * Approximate counts of 64-bit keys in fixed memory. Estimates never undercount; with conservative
+ * updates they overcount only when every row collides, which is rare at the sizes used here.
+ */
+final class CountMinSketch {
+    private final int[][] counters;
+    private final int mask;
+
+    /**
+     * @param width Counters per row; rounded up to a power of two.
+     * @param depth Rows, each with its own hash.
+     */
+    CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Sketch width and depth must be positive. Received: " + width + "x" + depth);
+        }
+        int size = Integer.highestOneBit(width - 1) << 1;
+        this.counters = new int[depth][Math.max(1, size)];
+        this.mask = counters[0].length - 1;
+    }
+
+    /**
+     * Counts one more occurrence of the key.
+     *
+     * @return The estimated number of occurrences, including this one.
+     */
+    int add(long key) {
+        int estimate = Integer.MAX_VALUE;
+        int[] slots = new int[counters.length];
+        for (int row = 0; row < counters.length; row++) {
+            slots[row] = slot(key, row);
+            estimate = Math.min(estimate, counters[row][slots[row]]);
+        }
+        // Conservative update: only the counters at the minimum can be exact, so only those grow
+        for (int row = 0; row < counters.length; row++) {
+            if (counters[row][slots[row]] == estimate) counters[row][slots[row]]++;
+        }
+        return estimate + 1;
+    }
+
+    private int slot(long key, int row) {
+        long h = key + (row + 1) * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (h ^ (h >>> 33)) & mask;
+    }
+}
@@ -0,0 +1,120 @@
+package com.splice.layout;
+
+import com.splice.model.geometry.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Orders the elements of one page for reading: the page is segmented into columns and bands with
+ * {@link XYCut}, and the elements of each region are clustered into lines with a sweep over
+ * their tops, lines read top to bottom and elements within a line left to right.
+ * Unlike a pairwise comparator, the result is a well-defined permutation for any input.
+ */
+public final class ReadingOrder {
+    /**
+     * Share of the smaller height two boxes must overlap vertically to sit on the same line.
+     */
+    private static final float SAME_LINE_OVERLAP = 0.40f;
+
+    private ReadingOrder() {}
+
+    /**
+     * @return A new list with the elements of a single page in reading order.
+     */
+    public static <T> List<T> sort(List<T> elements, Function<? super T, BoundingBox> box) {
+        return sort(elements, box, 0);
+    }
+
+    /**
+     * @param minColumnWidth Narrowest column recognised; see {@link XYCut#regions(List, float)}.
+     * @return A new list with the elements of a single page in reading order.
+     */
+    public static <T> List<T> sort(List<T> elements, Function<? super T, BoundingBox> box, float minColumnWidth) {
+        if (elements.size() < 2) return new ArrayList<>(elements);
+
+        List<BoundingBox> boxes = elements.stream().<BoundingBox>map(box).toList();
+
+        List<T> sorted = new ArrayList<>(elements.size());
+        for (int[] region : XYCut.regions(boxes, minColumnWidth)) {
+            for (int index : orderLines(boxes, region)) {
+                sorted.add(elements.get(index));
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * Orders elements into lines only, without segmenting them into columns first, e.g. the glyphs of
+     * a region whose lines are laid out in columns afterwards.
+     *
+     * @return A new list with the elements read line by line, top to bottom and left to right.
+     */
+    public static <T> List<T> sortByLines(List<T> elements, Function<? super T, BoundingBox> box) {
+        if (elements.size() < 2) return new ArrayList<>(elements);
+
+        List<BoundingBox> boxes = elements.stream().<BoundingBox>map(box).toList();
+
+        List<T> sorted = new ArrayList<>(elements.size());
+        for (int index : orderLines(boxes, IntStream.range(0, boxes.size()).toArray())) {
+            sorted.add(elements.get(index));
+        }
+        return sorted;
+    }
+
+    private static int[] orderLines(List<BoundingBox> boxes, int[] region) {
+        if (region.length < 2) return region;
+
+        long[] byTop = new long[region.length];
+        for (int i = 0; i < region.length; i++) {
+            byTop[i] = SortKeys.pack(boxes.get(region[i]).y(), region[i]);
+        }
+        Arrays.sort(byTop);
+
+        int[] ordered = new int[region.length];
+        long[] line = new long[region.length];
+        int written = 0;
+        int lineSize = 0;
+        float lineTop = 0;
+        float lineBottom = 0;
+
+        for (long key : byTop) {
+            BoundingBox box = boxes.get(SortKeys.index(key));
+            if (lineSize > 0 && !onLine(box, lineTop, lineBottom)) {
+                written = flushLine(boxes, line, lineSize, ordered, written);
+                lineSize = 0;
+            }
+            if (lineSize == 0) {
+                lineTop = box.y();
+                lineBottom = box.getBottomY();
+            } else {
+                lineBottom = Math.max(lineBottom, box.getBottomY());
+            }
+            line[lineSize++] = key;
+        }
+        flushLine(boxes, line, lineSize, ordered, written);
+        return ordered;
+    }
+
+    private static boolean onLine(BoundingBox box, float lineTop, float lineBottom) {
+        float overlap = Math.min(box.getBottomY(), lineBottom) - Math.max(box.y(), lineTop);
+        float minHeight = Math.min(box.height(), lineBottom - lineTop);
+        return minHeight > 0 && overlap / minHeight > SAME_LINE_OVERLAP;
+    }
+
+    private static int flushLine(List<BoundingBox> boxes, long[] line, int size, int[] ordered, int written) {
+        long[] byLeft = new long[size];
+        for (int i = 0; i < size; i++) {
+            int index = SortKeys.index(line[i]);
+            byLeft[i] = SortKeys.pack(boxes.get(index).x(), index);
+        }
+        Arrays.sort(byLeft);
+        for (long key : byLeft) {
+            ordered[written++] = SortKeys.index(key);
+        }
+        return written;
+    }
+}
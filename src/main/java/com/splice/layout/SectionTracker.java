@@ -0,0 +1,87 @@
+package com.splice.layout;
+
+import com.splice.model.document.DocumentElement;
+import com.splice.model.document.ElementType;
+import com.splice.model.document.HierarchyContext;
+import com.splice.model.document.content.TextContent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Assigns each element its enclosing section in a single streaming pass over a document.
+ * Titles and section headers open sections; a title closes every open section, and a header the
+ * open headers whose font is not larger than its own, so header sizes act as levels below titles. Every element is pushed and popped at most
+ * once, and only the open sections are kept, so pages can be fed one at a time as they are extracted.
+ * <p>
+ * Not thread-safe: use one tracker per document.
+ */
+public final class SectionTracker {
+    /**
+     * Headers whose font sizes differ by less than this many points are at the same level.
+     */
+    private static final float SAME_LEVEL_TOLERANCE = 0.5f;
+
+    private record Section(String id, String title, boolean isTitle, float fontSize, int pageNumber) {}
+
+    private final Deque<Section> open = new ArrayDeque<>();
+
+    /**
+     * @param pageElements The elements of the next page, in reading order.
+     * @return The same elements, in the same order, with their {@link HierarchyContext}.
+     */
+    public List<DocumentElement> assign(List<DocumentElement> pageElements) {
+        List<DocumentElement> assigned = new ArrayList<>(pageElements.size());
+
+        for (DocumentElement element : pageElements) {
+            ElementType type = element.type();
+            int pageNumber = element.location().pageNumber();
+
+            if (type == ElementType.PAGE_HEADER || type == ElementType.PAGE_FOOTER) {
+                // Running heads repeat on every page and belong to no section
+                assigned.add(element.withContext(new HierarchyContext(null, null, 0, false)));
+                continue;
+            }
+
+            if (type == ElementType.TITLE || type == ElementType.SECTION_HEADER) {
+                boolean isTitle = type == ElementType.TITLE;
+                float fontSize = fontSizeOf(element);
+                if (isTitle) {
+                    // A title outranks any header, whatever its font, and ends an earlier title
+                    open.clear();
+                } else {
+                    while (!open.isEmpty() && !open.peek().isTitle()
+                            && open.peek().fontSize() < fontSize + SAME_LEVEL_TOLERANCE) {
+                        open.pop();
+                    }
+                }
+                assigned.add(element.withContext(context(pageNumber)));
+                open.push(new Section(element.id(), titleOf(element), isTitle, fontSize, pageNumber));
+                continue;
+            }
+
+            assigned.add(element.withContext(context(pageNumber)));
+        }
+
+        return assigned;
+    }
+
+    private HierarchyContext context(int pageNumber) {
+        Section parent = open.peek();
+        if (parent == null) return new HierarchyContext(null, null, 0, false);
+
+        return new HierarchyContext(parent.id(), parent.title(), open.size(), parent.pageNumber() < pageNumber);
+    }
+
+    private static float fontSizeOf(DocumentElement element) {
+        return element.content() instanceof TextContent text ? text.fontSize() : 0f;
+    }
+
+    private static String titleOf(DocumentElement element) {
+        if (!(element.content() instanceof TextContent text) || text.text() == null) return null;
+
+        return text.text().strip().replaceAll("\\s*\n\\s*", " ");
+    }
+}
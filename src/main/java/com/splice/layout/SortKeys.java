@@ -0,0 +1,21 @@
+package com.splice.layout;
+
+/**
+ * Packs a float coordinate and an element index into a {@code long} whose natural order is the
+ * order of the coordinate, ties broken by index, so that layouts are sorted as primitive arrays.
+ */
+final class SortKeys {
+
+    private SortKeys() {}
+
+    static long pack(float coordinate, int index) {
+        int bits = Float.floatToIntBits(coordinate == 0f ? 0f : coordinate);
+        // Negative floats sort in reverse by their raw bits
+        int ordered = bits ^ ((bits >> 31) & 0x7fffffff);
+        return ((long) ordered << 32) | (index & 0xffffffffL);
+    }
+
+    static int index(long key) {
+        return (int) key;
+    }
+}
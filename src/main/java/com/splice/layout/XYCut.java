@@ -0,0 +1,125 @@
+package com.splice.layout;
+
+import com.splice.model.geometry.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Recursive XY-cut segmentation. A set of boxes is split at the widest whitespace gap of either
+ * axis (into rows top to bottom, or columns left to right), and each part is split again until
+ * no gap is left on either axis. Only primitive keys are sorted, and no comparison
+ * between boxes needs to be transitive.
+ */
+public final class XYCut {
+
+    /**
+     * Gaps at least this share of the widest gap are cut in the same pass.
+     */
+    private static final float CUT_RATIO = 0.8f;
+
+    private XYCut() {}
+
+    /**
+     * @return The indices of the boxes, grouped into the regions that cannot be cut further, in reading order.
+     */
+    public static List<int[]> regions(List<BoundingBox> boxes) {
+        return regions(boxes, 0);
+    }
+
+    /**
+     * @param minColumnWidth Narrowest column a vertical cut may produce. Cutting text between
+     *                       narrow columns (labels and values, say) would read one column after
+     *                       the other instead of row by row.
+     * @return The indices of the boxes, grouped into the regions that cannot be cut further, in reading order.
+     */
+    public static List<int[]> regions(List<BoundingBox> boxes, float minColumnWidth) {
+        List<int[]> regions = new ArrayList<>();
+        if (boxes.isEmpty()) return regions;
+
+        int[] all = new int[boxes.size()];
+        Arrays.setAll(all, i -> i);
+        cut(boxes, all, minColumnWidth, regions);
+        return regions;
+    }
+
+    private static void cut(List<BoundingBox> boxes, int[] members, float minColumnWidth, List<int[]> regions) {
+        if (members.length > 1) {
+            Split rows = split(boxes, members, false);
+            Split columns = split(boxes, members, true);
+            if (minColumnWidth > 0 && !allWider(boxes, columns.parts, minColumnWidth)) {
+                columns = new Split(List.of(members), -1);
+            }
+
+            Split best = rows.widestGap >= columns.widestGap ? rows : columns;
+            if (best.parts.size() > 1) {
+                for (int[] part : best.parts) {
+                    cut(boxes, part, minColumnWidth, regions);
+                }
+                return;
+            }
+        }
+        regions.add(members);
+    }
+
+    /**
+     * Sweeps the boxes by their start on one axis. A gap opens wherever a box begins at or after
+     * the furthest end seen so far; the boxes are split at the gaps nearly as wide as the widest,
+     * so that narrower gaps (between the paragraphs of a column, say) are left to the recursion.
+     */
+    private static Split split(List<BoundingBox> boxes, int[] members, boolean alongX) {
+        long[] keys = new long[members.length];
+        for (int i = 0; i < members.length; i++) {
+            BoundingBox box = boxes.get(members[i]);
+            keys[i] = SortKeys.pack(alongX ? box.x() : box.y(), members[i]);
+        }
+        Arrays.sort(keys);
+
+        // gaps[i] is the whitespace before the i-th sorted box, or -1 if it overlaps an earlier one
+        float[] gaps = new float[keys.length];
+        float widestGap = -1;
+        float end = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < keys.length; i++) {
+            BoundingBox box = boxes.get(SortKeys.index(keys[i]));
+            float start = alongX ? box.x() : box.y();
+
+            gaps[i] = i > 0 && start >= end ? start - end : -1;
+            widestGap = Math.max(widestGap, gaps[i]);
+            end = Math.max(end, alongX ? box.getRightX() : box.getBottomY());
+        }
+
+        List<int[]> parts = new ArrayList<>();
+        if (widestGap < 0) {
+            parts.add(members);
+            return new Split(parts, widestGap);
+        }
+
+        float threshold = widestGap * CUT_RATIO;
+        int from = 0;
+        for (int i = 1; i <= keys.length; i++) {
+            if (i == keys.length || (gaps[i] >= 0 && gaps[i] >= threshold)) {
+                int[] part = new int[i - from];
+                for (int k = from; k < i; k++) part[k - from] = SortKeys.index(keys[k]);
+                parts.add(part);
+                from = i;
+            }
+        }
+        return new Split(parts, widestGap);
+    }
+
+    private static boolean allWider(List<BoundingBox> boxes, List<int[]> parts, float minWidth) {
+        for (int[] part : parts) {
+            float left = Float.POSITIVE_INFINITY;
+            float right = Float.NEGATIVE_INFINITY;
+            for (int index : part) {
+                left = Math.min(left, boxes.get(index).x());
+                right = Math.max(right, boxes.get(index).getRightX());
+            }
+            if (right - left < minWidth) return false;
+        }
+        return true;
+    }
+
+    private record Split(List<int[]> parts, float widestGap) {}
+}
@@ -0,0 +1,20 @@
+package com.splice.model.document;
+
+import java.util.List;
+
+/**
+ * A size-bounded piece of a document's text, ready for embedding.
+ *
+ * @param index      Position of the chunk in the document, from {@code 0}.
+ * @param sectionId  Id of the title or section header the chunk belongs to, or {@code null}.
+ * @param elementIds The elements the text was taken from, in reading order.
+ * @param locations  Where those elements are, in the same order.
+ */
+public record Chunk(
+    int index,
+    String text,
+    String sectionId,
+    String sectionTitle,
+    List<String> elementIds,
+    List<Location> locations
+) {}
@@ -1,7 +1,6 @@
 package com.splice.model.document;
 
 import com.splice.model.document.content.PageContent;
-import com.splice.model.geometry.BoundingBox;
 
 import java.util.Comparator;
 
@@ -12,10 +11,16 @@ public record DocumentElement(
     HierarchyContext context,
     PageContent content
 ) {
+    /**
+     * Page, then top edge, then left edge. A total order safe for any sort; use
+     * {@link com.splice.layout.ReadingOrder} for the column-aware order of a page.
+     */
     public static final Comparator<DocumentElement> READING_ORDER = Comparator
-            .comparing((DocumentElement e) -> e.location().pageNumber())
-            .thenComparing((e1, e2) -> BoundingBox.compareReadingOrder(
-                    e1.location().bbox(),
-                    e2.location().bbox()
-            ));
+            .comparingInt((DocumentElement e) -> e.location().pageNumber())
+            .thenComparingDouble(e -> e.location().bbox().y())
+            .thenComparingDouble(e -> e.location().bbox().x());
+
+    public DocumentElement withContext(HierarchyContext context) {
+        return new DocumentElement(id, type, location, context, content);
+    }
 }
@@ -1,8 +1,13 @@
 package com.splice.model.document;
 
+/**
+ * @param parentSectionId Id of the title or section header the element belongs to, or {@code null}.
+ * @param hierarchyLevel  Number of sections enclosing the element; {@code 0} outside any section.
+ * @param isContinuation  {@code true} when the enclosing section started on an earlier page.
+ */
 public record HierarchyContext(
     String parentSectionId,
     String parentSectionTitle,
     int hierarchyLevel,
     boolean isContinuation
-) {}
\ No newline at end of file
+) {}
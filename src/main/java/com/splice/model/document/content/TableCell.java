@@ -0,0 +1,24 @@
+package com.splice.model.document.content;
+
+import com.splice.model.geometry.BoundingBox;
+
+/**
+ * A cell of a {@link TableContent} grid, anchored at its top-left grid position.
+ *
+ * @param row     Zero-based row of the top edge of the cell.
+ * @param col     Zero-based column of the left edge of the cell.
+ * @param rowSpan Rows covered by the cell, at least 1.
+ * @param colSpan Columns covered by the cell, at least 1.
+ * @param bbox    Location of the cell on the page.
+ */
+public record TableCell(int row, int col, int rowSpan, int colSpan, BoundingBox bbox, String text) {
+    public TableCell {
+        if (row < 0 || col < 0) {
+            throw new IllegalArgumentException("Cell position cannot be negative. Received: " + row + "," + col);
+        }
+        if (rowSpan < 1 || colSpan < 1) {
+            throw new IllegalArgumentException("Cell spans must be at least 1. Received: " + rowSpan + "x" + colSpan);
+        }
+        text = text == null ? "" : text;
+    }
+}
@@ -1,5 +1,122 @@
 package com.splice.model.document.content;
 
-public record TableContent(
-    String csvData
-) implements PageContent {}
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A table as a sparse grid of cells. Text renderings are built on demand from the grid; the CSV one is
+ * still serialised as {@code csvData}, as in reports written before the grid, and ignored when read back.
+ *
+ * @param rows  Number of rows of the grid.
+ * @param cols  Number of columns of the grid.
+ * @param cells Cells in row-major order; positions covered by a span or left empty have no cell.
+ */
+@JsonIgnoreProperties(value = "csvData", allowGetters = true)
+public record TableContent(int rows, int cols, List<TableCell> cells) implements PageContent {
+
+    public TableContent {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Table dimensions cannot be negative. Received: " + rows + "x" + cols);
+        }
+        cells = cells.stream()
+                .sorted(Comparator.comparingInt(TableCell::row).thenComparingInt(TableCell::col))
+                .toList();
+        for (TableCell cell : cells) {
+            if (cell.row() + cell.rowSpan() > rows || cell.col() + cell.colSpan() > cols) {
+                throw new IllegalArgumentException("Cell outside of a " + rows + "x" + cols + " table. Received: " + cell);
+            }
+        }
+    }
+
+    /**
+     * The table as RFC 4180 CSV, one line per row; spanned positions are empty fields.
+     */
+    @JsonProperty("csvData")
+    public String csvData() {
+        String[][] grid = grid();
+        StringBuilder csv = new StringBuilder();
+        for (String[] row : grid) {
+            for (int c = 0; c < row.length; c++) {
+                if (c > 0) csv.append(',');
+                appendCsvField(csv, row[c]);
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * The table as a GitHub-flavoured Markdown table, with the first row as header.
+     */
+    public String toMarkdown() {
+        String[][] grid = grid();
+        if (grid.length == 0 || cols == 0) return "";
+
+        StringBuilder markdown = new StringBuilder();
+        for (int r = 0; r < grid.length; r++) {
+            markdown.append('|');
+            for (String value : grid[r]) {
+                markdown.append(' ').append(escapeMarkdown(value)).append(" |");
+            }
+            markdown.append('\n');
+            if (r == 0) {
+                markdown.append("|---".repeat(cols)).append("|\n");
+            }
+        }
+        return markdown.toString();
+    }
+
+    /**
+     * The table as an HTML {@code <table>}, keeping row and column spans.
+     */
+    public String toHtml() {
+        StringBuilder html = new StringBuilder("<table>\n");
+        int index = 0;
+        for (int r = 0; r < rows; r++) {
+            html.append("<tr>");
+            while (index < cells.size() && cells.get(index).row() == r) {
+                TableCell cell = cells.get(index++);
+                html.append("<td");
+                if (cell.rowSpan() > 1) html.append(" rowspan=\"").append(cell.rowSpan()).append('"');
+                if (cell.colSpan() > 1) html.append(" colspan=\"").append(cell.colSpan()).append('"');
+                html.append('>').append(escapeHtml(cell.text())).append("</td>");
+            }
+            html.append("</tr>\n");
+        }
+        return html.append("</table>\n").toString();
+    }
+
+    private String[][] grid() {
+        String[][] grid = new String[rows][cols];
+        for (String[] row : grid) {
+            Arrays.fill(row, "");
+        }
+        for (TableCell cell : cells) {
+            grid[cell.row()][cell.col()] = cell.text();
+        }
+        return grid;
+    }
+
+    private static void appendCsvField(StringBuilder csv, String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            csv.append(value);
+            return;
+        }
+        csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static String escapeMarkdown(String value) {
+        return value.replace("|", "\\|").replace("\r\n", "<br>").replace("\r", "<br>").replace("\n", "<br>");
+    }
+
+    private static String escapeHtml(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\r\n", "<br>").replace("\r", "<br>").replace("\n", "<br>");
+    }
+}
@@ -1,4 +1,10 @@
 package com.splice.model.document.content;
 
-public record TextContent(String text) implements PageContent {
+/**
+ * @param fontSize Average font size of the text in points, {@code 0} when unknown.
+ */
+public record TextContent(String text, float fontSize) implements PageContent {
+    public TextContent(String text) {
+        this(text, 0f);
+    }
 }
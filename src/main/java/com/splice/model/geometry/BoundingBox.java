@@ -3,8 +3,6 @@ package com.splice.model.geometry;
 import java.awt.geom.Rectangle2D;
 
 public record BoundingBox(float x, float y, float width, float height) {
-    private static final float Y_OVERLAP_THRESHOLD = 0.40f;
-
     public BoundingBox {
         if (width < 0 || height < 0) {
             throw new IllegalArgumentException("Dimensions cannot be negative: w=" + width + ", h=" + height);        }
@@ -51,16 +49,6 @@ public record BoundingBox(float x, float y, float width, float height) {
         return this.x < other.getRightX() && this.getRightX() > other.x;
     }
 
-    public static int compareReadingOrder(BoundingBox b1, BoundingBox b2) {
-        float overlap = b1.verticalOverlapRatio(b2);
-        boolean onSameLine = overlap > Y_OVERLAP_THRESHOLD;
-
-        if (onSameLine) {
-            return Float.compare(b1.x, b2.x);
-        }
-        return Float.compare(b1.y, b2.y);
-    }
-
     public boolean intersects(BoundingBox other) {
         return this.x < other.x + other.width &&
                 this.x + this.width > other.x &&
@@ -1,9 +1,11 @@
 package com.splice.pipeline;
 
-import com.splice.extraction.pdf.PdfExtractor;
+import com.splice.extraction.Deadline;
+import com.splice.extraction.ExtractionTimeoutException;
 import com.splice.extraction.spi.ExtractorProvider;
 import com.splice.io.PathResolver;
 import com.splice.io.fs.LocalAssetStorage;
+import com.splice.io.json.JsonChunkWriter;
 import com.splice.model.document.IngestedDocument;
 import com.splice.extraction.DocumentExtractor;
 import com.splice.io.ResultWriter;
@@ -16,127 +18,368 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Stream;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 
 public class BatchProcessor {
 
     private static final Logger logger = LoggerFactory.getLogger(BatchProcessor.class);
 
+    private static final int DISCOVERY_PARALLELISM = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+
     private final ResultWriter writer;
     private final PathResolver pathResolver;
     private final List<ExtractorProvider> providers;
     private final com.splice.detection.LayoutDetector detector;
+    private final int maxConcurrentDocuments;
+    private final ProcessingLimits limits;
+    private final ChunkingOptions chunking;
+    private final NearDuplicateOptions nearDuplicates;
+    private final CostEstimator costEstimator;
 
     public BatchProcessor(ResultWriter writer, List<ExtractorProvider> providers, com.splice.detection.LayoutDetector detector) {
         this(writer, new PathResolver(), providers, detector);
     }
 
     public BatchProcessor(ResultWriter writer, PathResolver pathResolver, List<ExtractorProvider> providers, com.splice.detection.LayoutDetector detector) {
+        this(writer, pathResolver, providers, detector, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param maxConcurrentDocuments Documents extracted at the same time; the rest wait in a cost-ordered queue.
+     */
+    public BatchProcessor(ResultWriter writer, PathResolver pathResolver, List<ExtractorProvider> providers,
+                          com.splice.detection.LayoutDetector detector, int maxConcurrentDocuments) {
+        this(writer, pathResolver, providers, detector, maxConcurrentDocuments, ProcessingLimits.NONE);
+    }
+
+    /**
+     * @param maxConcurrentDocuments Documents extracted at the same time; the rest wait in a cost-ordered queue.
+     * @param limits                 Per-document and per-page time budgets, and when to quarantine a document.
+     */
+    public BatchProcessor(ResultWriter writer, PathResolver pathResolver, List<ExtractorProvider> providers,
+                          com.splice.detection.LayoutDetector detector, int maxConcurrentDocuments, ProcessingLimits limits) {
+        this(writer, pathResolver, providers, detector, maxConcurrentDocuments, limits, ChunkingOptions.NONE,
+                NearDuplicateOptions.NONE);
+    }
+
+    /**
+     * @param maxConcurrentDocuments Documents extracted at the same time; the rest wait in a cost-ordered queue.
+     * @param limits                 Per-document and per-page time budgets, and when to quarantine a document.
+     * @param chunking               Chunks written next to each report, if enabled.
+     * @param nearDuplicates         Whether documents nearly repeating an earlier one of the session are skipped.
+     */
+    public BatchProcessor(ResultWriter writer, PathResolver pathResolver, List<ExtractorProvider> providers,
+                          com.splice.detection.LayoutDetector detector, int maxConcurrentDocuments,
+                          ProcessingLimits limits, ChunkingOptions chunking, NearDuplicateOptions nearDuplicates) {
+        if (maxConcurrentDocuments <= 0) {
+            throw new IllegalArgumentException("At least one concurrent document is required. Received: " + maxConcurrentDocuments);
+        }
         this.writer = writer;
         this.pathResolver = pathResolver;
         this.providers = providers;
         this.detector = detector;
+        this.maxConcurrentDocuments = maxConcurrentDocuments;
+        this.limits = Objects.requireNonNull(limits);
+        this.chunking = Objects.requireNonNull(chunking);
+        this.nearDuplicates = Objects.requireNonNull(nearDuplicates);
+        this.costEstimator = new CostEstimator(providers);
+    }
+
+    public int process(Path inputRoot, Path outputRoot, boolean recursive) {
+        return process(inputRoot, outputRoot, recursive, false);
+    }
+
+    public int process(Path inputRoot, Path outputRoot, boolean recursive, boolean resume) {
+        return process(inputRoot, outputRoot, recursive, resume, DiscoveryFilter.ALL);
     }
 
     /**
      * Ingests documents from the specified directory using a streaming approach.
-     * Files are processed concurrently, and results are written immediately to disk to save memory.
+     * The tree is walked in parallel and each directory's documents are queued as soon as it is listed; queued
+     * documents are processed concurrently, largest estimated cost first, and results are written
+     * immediately to disk to save memory.
+     * Every completed document is appended to the {@link ProgressJournal} of the output root.
      *
-     * @param inputRoot  The root path containing the documents to process.
+     * @param inputRoot  The root path containing the documents to process, or a single document.
      * @param outputRoot The directory where JSON reports will be saved.
      * @param recursive       {@code true} to include subdirectories; {@code false} to process only the top-level directory.
+     * @param resume     {@code true} to skip documents the journal records as done with the same size and mtime.
+     * @param filter     Globs and modification date restricting which files are picked up.
+     * @return The total number of pages processed.
      * @throws RuntimeException If an I/O error occurs during file traversal or directory creation.
      */
-    public void process(Path inputRoot, Path outputRoot, boolean recursive) {
+    public int process(Path inputRoot, Path outputRoot, boolean recursive, boolean resume, DiscoveryFilter filter) {
         validateInputs(inputRoot, outputRoot);
 
-        int maxDepth = recursive ? Integer.MAX_VALUE : 1;
-        AtomicInteger totalPages = new AtomicInteger(0);
+        Path root = inputRoot.toAbsolutePath();
+        Path baseDir = Files.isDirectory(root) ? root : root.getParent();
+        LongAdder totalPages = new LongAdder();
 
-        try (Stream<Path> stream = Files.walk(inputRoot, maxDepth);
-             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        BatchSession session;
+        try {
+            session = openSession(baseDir, outputRoot, resume);
+            // Closing the session waits for the queued documents to finish
+            try (session) {
+                logger.info("Batch started: {}", root);
+
+                // Each directory is queued as a whole so its documents are cost-ordered among each other
+                long found = discovery(filter).walk(root, recursive, batch -> {
+                    for (var future : session.submitAll(batch, BatchSession.DEFAULT_PRIORITY)) {
+                        future.whenComplete((pages, failure) -> {
+                            if (failure == null) totalPages.add(pages);
+                        });
+                    }
+                });
+
+                if (found == 0) {
+                    logger.info("No supported files found in: {}", inputRoot);
+                } else {
+                    logger.info("Discovery completed. Files: {}", found);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Processing failed", e);
+            throw new RuntimeException("Batch processing failed", e);
+        }
 
-            List<Path> filesToProcess = stream
-                    .filter(Files::isRegularFile)
-                    .filter(this::isSupported)
-                    .toList();
+        if (session.skipped() > 0) {
+            logger.info("Resumed batch. Skipped {} files", session.skipped());
+        }
+        if (session.nearDuplicates() > 0) {
+            logger.info("Skipped {} near-duplicate files", session.nearDuplicates());
+        }
 
-            if (filesToProcess.isEmpty()) {
-                logger.info("No supported files found in: {}", inputRoot);
-                return;
-            }
+        logger.info("Batch completed. Pages processed: {}", totalPages.sum());
+        return totalPages.intValue();
+    }
 
-            logger.info("Batch started. Files: {}", filesToProcess.size());
+    /**
+     * Opens a session for submitting documents of an input tree one by one, e.g. as they arrive.
+     * The caller owns the session and must close it.
+     *
+     * @param inputRoot Directory the submitted documents live under; their output mirrors its structure.
+     * @param resume    {@code true} to skip documents the journal records as done with the same size and mtime.
+     */
+    public BatchSession openSession(Path inputRoot, Path outputRoot, boolean resume) throws IOException {
+        if (!Files.isDirectory(inputRoot)) throw new IllegalArgumentException("Invalid input: " + inputRoot);
+        validateInputs(inputRoot, outputRoot);
 
-            var tasks = filesToProcess.stream()
-                    .map(file -> (Callable<Void>) () -> {
-                        int count = processSingleFile(file, inputRoot, outputRoot);                        totalPages.addAndGet(count);
-                        return null;
-                    })
-                    .toList();
+        var journal = ProgressJournal.open(outputRoot, resume);
+        Quarantine quarantine;
+        try {
+            quarantine = Quarantine.open(outputRoot, limits.quarantineAfter());
+        } catch (IOException e) {
+            journal.close();
+            throw e;
+        }
+        var duplicates = nearDuplicates.enabled() ? new NearDuplicateIndex(nearDuplicates.similarity()) : null;
+        return new BatchSession(this, costEstimator, inputRoot.toAbsolutePath(), outputRoot,
+                journal, quarantine, duplicates, resume, maxConcurrentDocuments, limits);
+    }
 
-            executor.invokeAll(tasks);
+    /**
+     * Lists the documents under a root (or the root itself if it is a file) that a provider supports.
+     */
+    public List<Path> listSupportedFiles(Path root, boolean recursive) throws IOException {
+        return listSupportedFiles(root, recursive, DiscoveryFilter.ALL);
+    }
 
-            logger.info("Batch completed. Pages processed: {}", totalPages.get());
+    public List<Path> listSupportedFiles(Path root, boolean recursive, DiscoveryFilter filter) throws IOException {
+        return discovery(filter).list(root, recursive);
+    }
 
-        } catch (IOException | InterruptedException e) {
-            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
-            logger.error("Processing failed", e);
-            throw new RuntimeException("Batch processing failed", e);
-        }
+    private FileDiscovery discovery(DiscoveryFilter filter) {
+        return new FileDiscovery(this::isSupported, filter, DISCOVERY_PARALLELISM);
     }
 
-    private boolean isSupported(Path path) {
+    boolean isSupported(Path path) {
         return providers.stream().anyMatch(p -> p.supports(path));
     }
 
-    private int processSingleFile(Path inputFile, Path inputRoot, Path outputRoot) {
+    /**
+     * @param settle Called once extraction is over; {@code false} means the document was abandoned meanwhile
+     *               and nothing may be written for it.
+     */
+    int processSingleFile(Path inputFile, BatchSession session, BooleanSupplier settle) throws Exception {
         try {
             MDC.put("file", inputFile.getFileName().toString());
             long start = System.currentTimeMillis();
 
+            String source = journalKey(session.inputRoot().relativize(inputFile));
+            long size = Files.size(inputFile);
+            long lastModified = Files.getLastModifiedTime(inputFile).toMillis();
+
+            if (session.resume() && session.journal().completed(source, size, lastModified) != null) {
+                session.markSkipped();
+                logger.debug("Already processed, skipping");
+                return 0;
+            }
+            if (session.quarantine().isQuarantined(source, size, lastModified)) {
+                session.markSkipped();
+                logger.warn("Quarantined, skipping: {}", inputFile);
+                return 0;
+            }
+
             ExtractorProvider provider = providers.stream()
                     .filter(p -> p.supports(inputFile))
                     .findFirst()
                     .orElseThrow();
 
-            Path relativePath = inputRoot.relativize(inputFile.getParent());
-            Path targetDir = outputRoot.resolve(relativePath);
-            Files.createDirectories(targetDir);
-
-            String baseName = getFileNameWithoutExtension(inputFile);
-            Path specificAssetDir = targetDir.resolve(baseName + "_assets");
-
-            var assetStorage = new LocalAssetStorage(specificAssetDir);
-
-            DocumentExtractor extractor = provider.create(assetStorage, detector);
-
-            IngestedDocument result = extractor.extract(inputFile);
+            Path targetDir;
+            IngestedDocument result;
+            long[] signature = null;
+            Deadline deadline = Deadline.start(limits.documentTimeout(), limits.pageTimeout());
+            try {
+                if (session.duplicates() != null) {
+                    String original;
+                    try {
+                        // Only the text of the first pages is read, well before the layout model would run
+                        signature = MinHash.signature(provider.sampleText(inputFile, nearDuplicates.samplePages()));
+                        original = session.duplicates().find(source, signature);
+                    } catch (RuntimeException e) {
+                        strike(session, settle, source, size, lastModified, e);
+                        throw e;
+                    }
+                    if (original != null) {
+                        if (!settle.getAsBoolean()) return 0;
+                        session.markNearDuplicate();
+                        session.journal().record(ProgressJournal.Entry.duplicate(source, size, lastModified, original));
+                        logger.info("Near-duplicate of {}, skipping", original);
+                        return 0;
+                    }
+                }
+
+                Path relativePath = session.inputRoot().relativize(inputFile.getParent());
+                targetDir = session.outputRoot().resolve(relativePath);
+                Files.createDirectories(targetDir);
+
+                String baseName = getFileNameWithoutExtension(inputFile);
+                Path specificAssetDir = targetDir.resolve(baseName + "_assets");
+
+                var assetStorage = new LocalAssetStorage(specificAssetDir);
+
+                DocumentExtractor extractor = provider.create(assetStorage, detector);
+
+                try {
+                    result = extractor.extract(inputFile);
+                } catch (Exception e) {
+                    strike(session, settle, source, size, lastModified, e);
+                    throw e;
+                }
+            } finally {
+                deadline.close();
+            }
+            if (!settle.getAsBoolean()) {
+                logger.warn("Extraction returned after the document was abandoned, dropping its result");
+                return 0;
+            }
 
-            Path targetJsonFile = pathResolver.resolveUniquePath(
-                    targetDir,
-                    inputFile.getFileName().toString(),
-                    writer.extension()
-            );
+            Path targetJsonFile = resolveTarget(session, targetDir, inputFile, source);
 
             writer.write(result, targetJsonFile);
+            if (chunking.enabled()) {
+                writeChunks(result, targetJsonFile);
+            }
+
+            int pages = result.metadata().totalPages();
+            session.journal().record(new ProgressJournal.Entry(
+                    source, size, lastModified,
+                    result.metadata().fileHash(),
+                    journalKey(session.outputRoot().relativize(targetJsonFile)),
+                    pages
+            ));
+            if (session.duplicates() != null) {
+                // Only now may later documents be skipped in favour of this one
+                session.duplicates().add(source, signature);
+            }
 
             logger.debug("Processed in {}ms -> {}", System.currentTimeMillis() - start, targetJsonFile);
-            return result.metadata().totalPages();
+            return pages;
 
         } catch (Exception e) {
             logger.error("Failed to process file: {}", inputFile, e);
-            return 0;
+            throw e;
         } finally {
             MDC.clear();
         }
     }
 
+    /**
+     * Gives a document that ran out of time a quarantine strike, unless it was abandoned and already got one.
+     * Other failures, e.g. I/O errors, may well not recur and are not held against the document.
+     */
+    private void strike(BatchSession session, BooleanSupplier settle, String source, long size, long lastModified,
+                        Exception e) throws IOException {
+        if (isTimeout(e) && settle.getAsBoolean()) {
+            session.quarantine().strike(source, size, lastModified, describe(e));
+        }
+    }
+
+    /**
+     * Chunks the document's elements in reading order, streaming each chunk to a JSON Lines file next to the report.
+     */
+    private void writeChunks(IngestedDocument result, Path report) {
+        String name = report.getFileName().toString();
+        Path target = report.resolveSibling(name.substring(0, name.length() - writer.extension().length())
+                + JsonChunkWriter.FILE_EXTENSION);
+
+        try (var chunkWriter = new JsonChunkWriter(target)) {
+            var chunker = new Chunker(chunking, chunkWriter);
+            result.elements().forEach(chunker::accept);
+            chunker.finish();
+        }
+    }
+
+    /**
+     * When resuming, a report left behind by an earlier run of the same document is overwritten
+     * instead of getting a numbered sibling, unless the journal attributes it to another document.
+     */
+    private Path resolveTarget(BatchSession session, Path targetDir, Path inputFile, String source) throws IOException {
+        if (session.resume()) {
+            Path candidate = targetDir.resolve(getFileNameWithoutExtension(inputFile) + writer.extension());
+            String key = journalKey(session.outputRoot().relativize(candidate));
+            String owner = session.journal().sourceOf(key);
+            if ((owner == null || owner.equals(source)) && session.claimOutput(key, source)) {
+                return candidate;
+            }
+        }
+        return pathResolver.resolveUniquePath(targetDir, inputFile.getFileName().toString(), writer.extension());
+    }
+
+    /**
+     * Records a document whose extraction had to be abandoned because it never returned.
+     */
+    void strikeAbandoned(BatchSession session, Path inputFile) {
+        try {
+            String source = journalKey(session.inputRoot().relativize(inputFile));
+            session.quarantine().strike(source, Files.size(inputFile),
+                    Files.getLastModifiedTime(inputFile).toMillis(), "abandoned after " + limits.documentTimeout());
+        } catch (IOException e) {
+            logger.warn("Could not quarantine: {}", inputFile, e);
+        }
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause() != cause ? cause.getCause() : null) {
+            if (cause instanceof ExtractionTimeoutException) return true;
+        }
+        return false;
+    }
+
+    private String describe(Exception e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) root = root.getCause();
+        return root.getClass().getSimpleName() + (root.getMessage() != null ? ": " + root.getMessage() : "");
+    }
+
+    private String journalKey(Path relativePath) {
+        return relativePath.toString().replace(relativePath.getFileSystem().getSeparator(), "/");
+    }
+
     private void validateInputs(Path input, Path output) {
-        if (!Files.isDirectory(input)) throw new IllegalArgumentException("Invalid input: " + input);
+        if (!Files.isDirectory(input) && !Files.isRegularFile(input)) throw new IllegalArgumentException("Invalid input: " + input);
         try {
             Files.createDirectories(output);
         } catch (IOException e) {
@@ -149,4 +392,4 @@ public class BatchProcessor {
         int dotIndex = fileName.lastIndexOf('.');
         return (dotIndex == -1) ? fileName : fileName.substring(0, dotIndex);
     }
-}
\ No newline at end of file
+}
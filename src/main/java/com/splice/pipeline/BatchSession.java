@@ -0,0 +1,412 @@
+package com.splice.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A long-lived ingestion context bound to an input root and an output root. Documents can be
+ * submitted one at a time as they show up; they share the processor's warm extractors and
+ * detector, the output journal and a bounded set of workers.
+ * <p>
+ * Queued documents are dispatched by caller priority, then by estimated cost, largest first
+ * (longest-processing-time-first), so that a large scan does not end up as the last straggler.
+ * Closing the session waits for submitted documents to finish.
+ */
+public class BatchSession implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BatchSession.class);
+
+    public static final int DEFAULT_PRIORITY = 0;
+
+    private static final long ABANDON_GRACE_MILLIS = 30_000;
+    /**
+     * Queued documents beyond which {@link #submitAll} waits for workers to catch up, so that discovering
+     * a huge tree does not queue all of it at once.
+     */
+    static final int MAX_QUEUED = 4096;
+
+    private static final Comparator<Task> DISPATCH_ORDER = Comparator
+            .comparingInt((Task t) -> t.priority).reversed()
+            .thenComparing(Comparator.comparingLong((Task t) -> t.cost).reversed())
+            .thenComparingLong(t -> t.sequence);
+
+    private final BatchProcessor processor;
+    private final CostEstimator costEstimator;
+    private final Path inputRoot;
+    private final Path outputRoot;
+    private final ProgressJournal journal;
+    private final Quarantine quarantine;
+    private final NearDuplicateIndex duplicates;
+    private final boolean resume;
+    private final long abandonAfterMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final PriorityQueue<Task> queue = new PriorityQueue<>(DISPATCH_ORDER);
+    private final Map<Path, Task> pending = new HashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final ThreadFactory workerFactory = Thread.ofVirtual().name("splice-worker-", 0).factory();
+    private final ScheduledExecutorService watchdog;
+    private long nextSequence;
+    private boolean closing;
+
+    private final Map<String, String> claimedOutputs = new ConcurrentHashMap<>();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger nearDuplicates = new AtomicInteger();
+
+    BatchSession(BatchProcessor processor, CostEstimator costEstimator, Path inputRoot, Path outputRoot,
+                 ProgressJournal journal, Quarantine quarantine, NearDuplicateIndex duplicates, boolean resume,
+                 int maxConcurrentDocuments, ProcessingLimits limits) {
+        this.processor = processor;
+        this.costEstimator = costEstimator;
+        this.inputRoot = inputRoot;
+        this.outputRoot = outputRoot;
+        this.journal = journal;
+        this.quarantine = quarantine;
+        this.duplicates = duplicates;
+        this.resume = resume;
+
+        // Extraction checks its deadline cooperatively; a document still running well past it is stuck
+        // somewhere without checks (native code, a third-party loop) and its worker is replaced.
+        if (limits.hasDocumentTimeout()) {
+            long timeout = limits.documentTimeout().toMillis();
+            this.abandonAfterMillis = timeout + Math.max(ABANDON_GRACE_MILLIS, timeout / 2);
+            this.watchdog = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("splice-watchdog").daemon().factory());
+        } else {
+            this.abandonAfterMillis = 0;
+            this.watchdog = null;
+        }
+
+        for (int i = 0; i < maxConcurrentDocuments; i++) {
+            startWorker();
+        }
+    }
+
+    public CompletableFuture<Integer> submit(Path file) {
+        return submit(file, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Queues a document located under the input root.
+     * A document submitted again while still queued keeps a single entry (with the highest priority);
+     * one submitted while being processed is processed once more afterwards.
+     *
+     * @param priority Higher values are dispatched first, whatever their cost.
+     * @return The number of pages extracted (0 if the document was skipped), completed exceptionally if extraction failed.
+     */
+    public CompletableFuture<Integer> submit(Path file, int priority) {
+        Path key = file.toAbsolutePath().normalize();
+        return enqueue(key, priority, costEstimator.estimate(key));
+    }
+
+    /**
+     * Queues a set of documents at once, so that they are ordered among each other before any is dispatched.
+     * Costs are probed concurrently, a bounded number of files at a time. Blocks while {@link #MAX_QUEUED}
+     * documents are already waiting; the set itself is queued whole.
+     */
+    public List<CompletableFuture<Integer>> submitAll(List<Path> files, int priority) {
+        List<Path> keys = files.stream().map(f -> f.toAbsolutePath().normalize()).toList();
+
+        long[] costs = costEstimator.estimateAll(keys);
+
+        lock.lock();
+        try {
+            while (queue.size() >= MAX_QUEUED && !closing) {
+                notFull.awaitUninterruptibly();
+            }
+            List<CompletableFuture<Integer>> futures = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                futures.add(enqueue(keys.get(i), priority, costs[i]));
+            }
+            return futures;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path inputRoot() {
+        return inputRoot;
+    }
+
+    public Path outputRoot() {
+        return outputRoot;
+    }
+
+    /**
+     * Number of documents skipped because the journal already holds them unchanged.
+     */
+    public int skipped() {
+        return skipped.get();
+    }
+
+    /**
+     * Number of documents skipped as near-duplicates of an earlier document of the session.
+     */
+    public int nearDuplicates() {
+        return nearDuplicates.get();
+    }
+
+    ProgressJournal journal() {
+        return journal;
+    }
+
+    Quarantine quarantine() {
+        return quarantine;
+    }
+
+    boolean resume() {
+        return resume;
+    }
+
+    void markSkipped() {
+        skipped.incrementAndGet();
+    }
+
+    /**
+     * @return The index of the documents seen so far, or {@code null} if near-duplicates are not detected.
+     */
+    NearDuplicateIndex duplicates() {
+        return duplicates;
+    }
+
+    void markNearDuplicate() {
+        nearDuplicates.incrementAndGet();
+    }
+
+    /**
+     * Reserves a report path for a source for the lifetime of the session.
+     */
+    boolean claimOutput(String output, String source) {
+        String owner = claimedOutputs.putIfAbsent(output, source);
+        return owner == null || owner.equals(source);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closing = true;
+            available.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        boolean interrupted = false;
+        while (true) {
+            Thread worker;
+            lock.lock();
+            try {
+                worker = workers.stream().filter(Thread::isAlive).findFirst().orElse(null);
+            } finally {
+                lock.unlock();
+            }
+            if (worker == null) break;
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+        journal.close();
+        quarantine.close();
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Integer> enqueue(Path file, int priority, long cost) {
+        lock.lock();
+        try {
+            if (closing) {
+                throw new IllegalStateException("Session is closed");
+            }
+
+            Task existing = pending.get(file);
+            if (existing != null && !existing.running) {
+                if (priority > existing.priority) {
+                    queue.remove(existing);
+                    existing.priority = priority;
+                    queue.add(existing);
+                }
+                return existing.future;
+            }
+            if (existing != null) {
+                if (existing.rerun == null) {
+                    existing.rerun = new Task(file, priority, cost, nextSequence++, new CompletableFuture<>());
+                }
+                return existing.rerun.future;
+            }
+
+            Task task = new Task(file, priority, cost, nextSequence++, new CompletableFuture<>());
+            pending.put(file, task);
+            queue.add(task);
+            available.signal();
+            return task.future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void startWorker() {
+        Thread worker = workerFactory.newThread(this::work);
+        lock.lock();
+        try {
+            workers.removeIf(t -> t.getState() == Thread.State.TERMINATED);
+            workers.add(worker);
+        } finally {
+            lock.unlock();
+        }
+        worker.start();
+    }
+
+    private void work() {
+        while (true) {
+            Task task;
+            lock.lock();
+            try {
+                while (queue.isEmpty() && !closing) {
+                    available.awaitUninterruptibly();
+                }
+                task = queue.poll();
+                if (task == null) return;
+                task.running = true;
+                if (queue.size() < MAX_QUEUED) notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            Thread current = Thread.currentThread();
+            ScheduledFuture<?> abandonment = watchdog != null
+                    ? watchdog.schedule(() -> abandon(task, current), abandonAfterMillis, TimeUnit.MILLISECONDS)
+                    : null;
+
+            int pages = 0;
+            Exception failure = null;
+            try {
+                pages = processor.processSingleFile(task.file, this, () -> settle(task));
+            } catch (Exception e) {
+                failure = e;
+            } finally {
+                if (abandonment != null) abandonment.cancel(false);
+            }
+
+            if (!finish(task, pages, failure)) {
+                // Abandoned while running: a replacement worker already took this one's place
+                Thread.interrupted();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gives up on a document that ignored its deadline: its result is reported as failed, it gets a
+     * quarantine strike, and a fresh worker replaces the stuck one so the queue keeps moving.
+     */
+    private void abandon(Task task, Thread worker) {
+        lock.lock();
+        try {
+            // A worker past extraction is writing its outputs, not stuck
+            if (task.settled || task.finished) return;
+            task.abandoned = true;
+        } finally {
+            lock.unlock();
+        }
+
+        var timeout = new TimeoutException("Abandoned " + task.file + " after " + abandonAfterMillis + " ms");
+        if (!finish(task, 0, timeout)) return;
+
+        logger.error("Document did not stop after its deadline, abandoning it: {}", task.file);
+        lock.lock();
+        try {
+            // Closing the session must not wait for a thread that may never return
+            workers.remove(worker);
+        } finally {
+            lock.unlock();
+        }
+        worker.interrupt();
+        processor.strikeAbandoned(this, task.file);
+        startWorker();
+    }
+
+    /**
+     * Called by the worker once extraction returned or failed, before it writes any output: from then on
+     * the task is no longer abandoned for running late.
+     *
+     * @return {@code false} if the task was already abandoned; its worker must then not write anything,
+     * as the session may have been closed since.
+     */
+    private boolean settle(Task task) {
+        lock.lock();
+        try {
+            if (task.abandoned) return false;
+            task.settled = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Completes a task exactly once and requeues its pending rerun.
+     *
+     * @return {@code false} if the task had already been completed.
+     */
+    private boolean finish(Task task, int pages, Exception failure) {
+        lock.lock();
+        try {
+            if (task.finished) return false;
+            task.finished = true;
+
+            pending.remove(task.file);
+            if (task.rerun != null) {
+                pending.put(task.file, task.rerun);
+                queue.add(task.rerun);
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (failure != null) {
+            task.future.completeExceptionally(failure);
+        } else {
+            task.future.complete(pages);
+        }
+        return true;
+    }
+
+    private static final class Task {
+        private final Path file;
+        private final long cost;
+        private final long sequence;
+        private final CompletableFuture<Integer> future;
+        private int priority;
+        private boolean running;
+        private boolean settled;
+        private boolean abandoned;
+        private boolean finished;
+        private Task rerun;
+
+        private Task(Path file, int priority, long cost, long sequence, CompletableFuture<Integer> future) {
+            this.file = file;
+            this.priority = priority;
+            this.cost = cost;
+            this.sequence = sequence;
+            this.future = future;
+        }
+    }
+}
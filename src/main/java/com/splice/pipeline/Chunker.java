@@ -0,0 +1,211 @@
+package com.splice.pipeline;
+
+import com.splice.model.document.Chunk;
+import com.splice.model.document.DocumentElement;
+import com.splice.model.document.ElementType;
+import com.splice.model.document.HierarchyContext;
+import com.splice.model.document.Location;
+import com.splice.model.document.content.ImageContent;
+import com.splice.model.document.content.TableContent;
+import com.splice.model.document.content.TextContent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Cuts a document into size-bounded chunks as its elements arrive in reading order.
+ * Text is packed word by word; a chunk never spans two sections, and tables get chunks of their own,
+ * cut between rows with the header row repeated. When a long passage has to be cut, the end of a
+ * chunk is repeated at the start of the next one. A table row is never cut: one outgrowing the budget
+ * gets a chunk of its own, over budget. Only the chunk being filled is held in memory.
+ * <p>
+ * Not thread-safe: use one chunker per document.
+ */
+public final class Chunker {
+    private static final String WORD_SEPARATOR = " ";
+    private static final String ELEMENT_SEPARATOR = "\n\n";
+    private static final String ROW_SEPARATOR = "\n";
+
+    /**
+     * A word (or table row) of the chunk being filled, with the separator that precedes it.
+     */
+    private record Segment(String text, String separator, int size, DocumentElement source) {}
+
+    private final ChunkingOptions options;
+    private final Consumer<Chunk> sink;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private int size;
+    private String sectionId;
+    private String sectionTitle;
+    private int nextIndex;
+
+    public Chunker(ChunkingOptions options, Consumer<Chunk> sink) {
+        if (!options.enabled()) {
+            throw new IllegalArgumentException("Chunking must be enabled. Received: " + options);
+        }
+        this.options = options;
+        this.sink = Objects.requireNonNull(sink);
+    }
+
+    /**
+     * Adds the next element of the document; any chunks it completes are passed to the sink.
+     */
+    public void accept(DocumentElement element) {
+        ElementType type = element.type();
+        if (type == ElementType.PAGE_HEADER || type == ElementType.PAGE_FOOTER) return;
+
+        boolean heading = type == ElementType.TITLE || type == ElementType.SECTION_HEADER;
+        String text = textOf(element);
+        if (text == null || text.isBlank()) return;
+
+        String section = heading ? element.id() : sectionOf(element);
+        if (heading || !Objects.equals(section, sectionId)) {
+            flush();
+            sectionId = section;
+            sectionTitle = heading ? text.strip().replaceAll("\\s*\n\\s*", " ") : titleOf(element);
+        }
+
+        if (element.content() instanceof TableContent) {
+            flush();
+            addTable(element, text);
+            flush();
+            return;
+        }
+
+        boolean first = true;
+        for (String word : text.strip().split("\\s+")) {
+            for (String piece : fit(word)) {
+                String separator = first ? ELEMENT_SEPARATOR : WORD_SEPARATOR;
+                // Measured in the unit: whitespace separators are characters but no tokens
+                add(new Segment(piece, separator, options.measure(separator) + options.measure(piece), element));
+                first = false;
+            }
+        }
+    }
+
+    /**
+     * Emits the last, partly filled chunk. Call once after the last element.
+     */
+    public void finish() {
+        flush();
+    }
+
+    /**
+     * Convenience for a document whose elements are already in memory.
+     */
+    public static List<Chunk> chunk(List<DocumentElement> elements, ChunkingOptions options) {
+        List<Chunk> chunks = new ArrayList<>();
+        var chunker = new Chunker(options, chunks::add);
+        elements.forEach(chunker::accept);
+        chunker.finish();
+        return chunks;
+    }
+
+    private void addTable(DocumentElement element, String markdown) {
+        String[] rows = markdown.strip().split("\n");
+        // The header and its delimiter row head every chunk of the table
+        int headerRows = rows.length > 2 && rows[1].startsWith("|---") ? 2 : 0;
+        String header = String.join(ROW_SEPARATOR, Arrays.copyOf(rows, headerRows));
+        int headerSize = headerRows > 0 ? options.measure(header) : 0;
+
+        for (int r = headerRows; r < rows.length; r++) {
+            int rowSize = options.measure(ROW_SEPARATOR) + options.measure(rows[r]);
+            if (segments.isEmpty() || size + rowSize > options.maxSize()) {
+                flush();
+                if (headerRows > 0) {
+                    segments.add(new Segment(header, "", headerSize, element));
+                    size = headerSize;
+                }
+            }
+            segments.add(new Segment(rows[r], ROW_SEPARATOR, rowSize, element));
+            size += rowSize;
+        }
+    }
+
+    private void add(Segment segment) {
+        if (!segments.isEmpty() && size + segment.size() > options.maxSize()) {
+            List<Segment> tail = tail(Math.min(options.overlap(), options.maxSize() - segment.size()));
+            flush();
+            for (Segment carried : tail) {
+                segments.add(carried);
+                size += carried.size();
+            }
+        }
+        segments.add(segment);
+        size += segment.size();
+    }
+
+    /**
+     * @return The last segments of the chunk that fit in the budget, never the whole chunk.
+     */
+    private List<Segment> tail(int budget) {
+        int from = segments.size();
+        int carried = 0;
+        while (from > 1 && carried + segments.get(from - 1).size() <= budget) {
+            carried += segments.get(--from).size();
+        }
+        return new ArrayList<>(segments.subList(from, segments.size()));
+    }
+
+    /**
+     * Words longer than a whole chunk are only cut when sizes are counted in characters.
+     */
+    private List<String> fit(String word) {
+        int room = options.maxSize() - WORD_SEPARATOR.length();
+        if (options.unit() != ChunkingOptions.Unit.CHARACTERS || room <= 0 || word.length() <= room) {
+            return List.of(word);
+        }
+        List<String> pieces = new ArrayList<>();
+        for (int i = 0; i < word.length(); i += room) {
+            pieces.add(word.substring(i, Math.min(word.length(), i + room)));
+        }
+        return pieces;
+    }
+
+    private void flush() {
+        if (segments.isEmpty()) return;
+
+        StringBuilder text = new StringBuilder();
+        List<String> elementIds = new ArrayList<>();
+        List<Location> locations = new ArrayList<>();
+        DocumentElement last = null;
+
+        for (Segment segment : segments) {
+            if (!text.isEmpty()) text.append(segment.separator());
+            text.append(segment.text());
+            if (segment.source() != last) {
+                last = segment.source();
+                elementIds.add(last.id());
+                locations.add(last.location());
+            }
+        }
+
+        sink.accept(new Chunk(nextIndex++, text.toString(), sectionId, sectionTitle,
+                List.copyOf(elementIds), List.copyOf(locations)));
+        segments.clear();
+        size = 0;
+    }
+
+    private static String textOf(DocumentElement element) {
+        return switch (element.content()) {
+            case TextContent text -> text.text();
+            case TableContent table -> table.toMarkdown();
+            case ImageContent image -> image.caption();
+            case null -> null;
+        };
+    }
+
+    private static String sectionOf(DocumentElement element) {
+        HierarchyContext context = element.context();
+        return context != null ? context.parentSectionId() : null;
+    }
+
+    private static String titleOf(DocumentElement element) {
+        HierarchyContext context = element.context();
+        return context != null ? context.parentSectionTitle() : null;
+    }
+}
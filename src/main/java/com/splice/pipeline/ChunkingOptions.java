@@ -0,0 +1,58 @@
+package com.splice.pipeline;
+
+/**
+ * How documents are cut into chunks for retrieval.
+ *
+ * @param maxSize Largest chunk, in {@code unit}s; {@code 0} disables chunking. Table rows are never cut, so a
+ *                row larger than this (with the repeated header) gets a chunk of its own that exceeds it;
+ *                so does a word when sizes are counted in tokens.
+ * @param overlap Trailing text of a chunk repeated at the start of the next one when a long passage is cut.
+ */
+public record ChunkingOptions(int maxSize, int overlap, Unit unit) {
+    public static final ChunkingOptions NONE = new ChunkingOptions(0, 0, Unit.CHARACTERS);
+
+    public enum Unit {
+        CHARACTERS,
+        /**
+         * Words and punctuation marks, a tokenizer-independent estimate of model tokens.
+         */
+        TOKENS
+    }
+
+    public ChunkingOptions {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Chunk size must be zero or positive. Received: " + maxSize);
+        }
+        if (overlap < 0 || (maxSize > 0 && overlap >= maxSize)) {
+            throw new IllegalArgumentException("Chunk overlap must be zero or less than the chunk size. Received: " + overlap);
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("Chunk unit is required. Received: null");
+        }
+    }
+
+    public boolean enabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * @return The size of a piece of text in this unit.
+     */
+    int measure(String text) {
+        if (unit == Unit.CHARACTERS) return text.length();
+
+        int tokens = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '_') {
+                if (!inWord) tokens++;
+                inWord = true;
+            } else {
+                if (!Character.isWhitespace(c)) tokens++;
+                inWord = false;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,63 @@
+package com.splice.pipeline;
+
+import com.splice.extraction.spi.ExtractorProvider;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Rough relative cost of a document, used to start the longest jobs first.
+ * Combines the file size with the page count reported by the provider's probe,
+ * since layout detection and extraction scale with pages rather than bytes.
+ */
+public class CostEstimator {
+    static final long PAGE_WEIGHT_BYTES = 256 * 1024;
+    /**
+     * Files probed at once by {@link #estimateAll}; each probe holds the file open.
+     */
+    static final int PROBE_CONCURRENCY = 16;
+
+    private final List<ExtractorProvider> providers;
+
+    public CostEstimator(List<ExtractorProvider> providers) {
+        this.providers = providers;
+    }
+
+    public long estimate(Path file) {
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+
+        int pages = providers.stream()
+                .filter(p -> p.supports(file))
+                .findFirst()
+                .map(p -> p.probePageCount(file))
+                .orElse(-1);
+
+        return pages > 0 ? size + pages * PAGE_WEIGHT_BYTES : size;
+    }
+
+    /**
+     * Estimates a set of files concurrently, a bounded number at a time.
+     *
+     * @return The costs, in the order of the files.
+     */
+    public long[] estimateAll(List<Path> files) {
+        long[] costs = new long[files.size()];
+        try (ExecutorService probes = Executors.newFixedThreadPool(
+                Math.min(PROBE_CONCURRENCY, Math.max(1, files.size())), Thread.ofVirtual().factory())) {
+            for (int i = 0; i < files.size(); i++) {
+                int index = i;
+                probes.execute(() -> costs[index] = estimate(files.get(index)));
+            }
+        }
+        return costs;
+    }
+}
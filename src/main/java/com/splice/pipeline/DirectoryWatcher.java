@@ -0,0 +1,226 @@
+package com.splice.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Feeds documents dropped into an input tree to a {@link BatchSession} as they arrive.
+ * Bursts of create/modify events for a file are coalesced, and a file is only submitted once its
+ * size and mtime have stayed unchanged for a quiet period, so partially copied uploads are not read.
+ * Files already present are caught up on start; the journal skips the ones processed before.
+ */
+public class DirectoryWatcher implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryWatcher.class);
+
+    public static final Duration DEFAULT_QUIET_PERIOD = Duration.ofSeconds(2);
+
+    private final BatchProcessor processor;
+    private final Path inputRoot;
+    private final Path outputRoot;
+    private final boolean recursive;
+    private final long quietPeriodMillis;
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirs = new HashMap<>();
+    private final Map<Path, PendingFile> pending = new HashMap<>();
+
+    private volatile boolean closed;
+
+    public DirectoryWatcher(BatchProcessor processor, Path inputRoot, Path outputRoot, boolean recursive) throws IOException {
+        this(processor, inputRoot, outputRoot, recursive, DEFAULT_QUIET_PERIOD);
+    }
+
+    /**
+     * @param quietPeriod How long a file must stay unchanged before it is submitted.
+     */
+    public DirectoryWatcher(BatchProcessor processor, Path inputRoot, Path outputRoot, boolean recursive, Duration quietPeriod) throws IOException {
+        if (!Files.isDirectory(inputRoot)) {
+            throw new IllegalArgumentException("Watch mode requires an input directory: " + inputRoot);
+        }
+        if (quietPeriod.isNegative()) {
+            throw new IllegalArgumentException("Quiet period must not be negative. Received: " + quietPeriod);
+        }
+        this.processor = processor;
+        this.inputRoot = inputRoot.toAbsolutePath().normalize();
+        this.outputRoot = outputRoot.toAbsolutePath().normalize();
+        this.recursive = recursive;
+        this.quietPeriodMillis = quietPeriod.toMillis();
+        this.watchService = this.inputRoot.getFileSystem().newWatchService();
+    }
+
+    /**
+     * Watches the input tree until {@link #close()} is called or the thread is interrupted.
+     */
+    public void run() throws IOException {
+        try (var session = processor.openSession(inputRoot, outputRoot, true)) {
+            register(inputRoot, session);
+            logger.info("Watching {} for new documents", inputRoot);
+
+            while (!closed) {
+                WatchKey key;
+                try {
+                    key = watchService.poll(nextTimeout(), TimeUnit.MILLISECONDS);
+                } catch (ClosedWatchServiceException e) {
+                    break;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                if (key != null) {
+                    handle(key, session);
+                }
+                flushSettled(session);
+            }
+        } finally {
+            closeWatchService();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeWatchService();
+    }
+
+    private void handle(WatchKey key, BatchSession session) throws IOException {
+        Path dir = watchedDirs.get(key);
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                logger.warn("Watch events overflowed, rescanning {}", inputRoot);
+                scan(inputRoot, session);
+                continue;
+            }
+            if (dir == null) continue;
+
+            Path child = dir.resolve((Path) event.context());
+            if (child.startsWith(outputRoot)) continue;
+
+            if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                if (recursive && event.kind() == ENTRY_CREATE) {
+                    register(child, session);
+                }
+            } else if (processor.isSupported(child)) {
+                touch(child);
+            }
+        }
+
+        if (!key.reset()) {
+            watchedDirs.remove(key);
+        }
+    }
+
+    /**
+     * Registers a directory (and its subdirectories when recursive) and schedules the documents
+     * it already contains, which covers files created before the registration took effect.
+     */
+    private void register(Path dir, BatchSession session) throws IOException {
+        if (!recursive) {
+            watchedDirs.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY), dir);
+            scan(dir, session);
+            return;
+        }
+
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path subDir, BasicFileAttributes attrs) throws IOException {
+                if (subDir.startsWith(outputRoot)) return FileVisitResult.SKIP_SUBTREE;
+                watchedDirs.put(subDir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY), subDir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        scan(dir, session);
+    }
+
+    private void scan(Path dir, BatchSession session) throws IOException {
+        try (Stream<Path> files = Files.walk(dir, recursive ? Integer.MAX_VALUE : 1)) {
+            files.filter(file -> !file.startsWith(outputRoot))
+                    .filter(Files::isRegularFile)
+                    .filter(processor::isSupported)
+                    .forEach(this::touch);
+        }
+    }
+
+    /**
+     * Restarts the quiet period of a file from its current size and mtime, so a file that is
+     * already complete is submitted after a single quiet period.
+     */
+    private void touch(Path file) {
+        long size;
+        long lastModified;
+        try {
+            size = Files.size(file);
+            lastModified = Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            // Deleted or renamed before we got to it
+            pending.remove(file);
+            return;
+        }
+        pending.put(file, new PendingFile(System.currentTimeMillis() + quietPeriodMillis, size, lastModified));
+    }
+
+    /**
+     * Submits files whose quiet period elapsed and whose size and mtime did not move since the
+     * last check; files still growing get another quiet period.
+     */
+    private void flushSettled(BatchSession session) {
+        long now = System.currentTimeMillis();
+
+        Iterator<Map.Entry<Path, PendingFile>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            var entry = it.next();
+            Path file = entry.getKey();
+            PendingFile state = entry.getValue();
+            if (state.deadline > now) continue;
+
+            long size;
+            long lastModified;
+            try {
+                size = Files.size(file);
+                lastModified = Files.getLastModifiedTime(file).toMillis();
+            } catch (IOException e) {
+                it.remove();
+                continue;
+            }
+
+            if (size == state.size && lastModified == state.lastModified) {
+                it.remove();
+                logger.debug("Submitting {}", file);
+                session.submit(file);
+            } else {
+                entry.setValue(new PendingFile(now + quietPeriodMillis, size, lastModified));
+            }
+        }
+    }
+
+    private long nextTimeout() {
+        long now = System.currentTimeMillis();
+        return pending.values().stream()
+                .mapToLong(p -> Math.max(1, p.deadline - now))
+                .min()
+                .orElse(quietPeriodMillis > 0 ? quietPeriodMillis : 1000);
+    }
+
+    private void closeWatchService() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("Could not close the watch service", e);
+        }
+    }
+
+    private record PendingFile(long deadline, long size, long lastModified) {}
+}
@@ -0,0 +1,64 @@
+package com.splice.pipeline;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Which files of an input tree to pick up.
+ * Globs without a {@code /} are matched against the file name (e.g. {@code *.pdf}); others against the
+ * path relative to the input root (e.g. {@code archive/**}). An excluded directory is not descended into.
+ *
+ * @param includes      Globs a file must match at least one of; empty to accept every file.
+ * @param excludes      Globs of files and directories to skip.
+ * @param modifiedSince Only files modified at or after this instant; null for no limit.
+ */
+public record DiscoveryFilter(List<String> includes, List<String> excludes, Instant modifiedSince) {
+    public static final DiscoveryFilter ALL = new DiscoveryFilter(List.of(), List.of(), null);
+
+    public DiscoveryFilter {
+        includes = includes != null ? List.copyOf(includes) : List.of();
+        excludes = excludes != null ? List.copyOf(excludes) : List.of();
+    }
+
+    Matcher compile() {
+        return new Matcher(this, FileSystems.getDefault());
+    }
+
+    static final class Matcher {
+        private final List<Glob> includes;
+        private final List<Glob> excludes;
+        private final long modifiedSince;
+
+        private Matcher(DiscoveryFilter filter, FileSystem fileSystem) {
+            this.includes = filter.includes().stream().map(g -> Glob.of(g, fileSystem)).toList();
+            this.excludes = filter.excludes().stream().map(g -> Glob.of(g, fileSystem)).toList();
+            this.modifiedSince = filter.modifiedSince() != null ? filter.modifiedSince().toEpochMilli() : Long.MIN_VALUE;
+        }
+
+        boolean acceptsDirectory(Path relative) {
+            return excludes.stream().noneMatch(g -> g.matches(relative));
+        }
+
+        boolean acceptsFile(Path relative, BasicFileAttributes attributes) {
+            if (attributes.lastModifiedTime().toMillis() < modifiedSince) return false;
+            if (excludes.stream().anyMatch(g -> g.matches(relative))) return false;
+            return includes.isEmpty() || includes.stream().anyMatch(g -> g.matches(relative));
+        }
+    }
+
+    private record Glob(PathMatcher matcher, boolean onName) {
+        static Glob of(String pattern, FileSystem fileSystem) {
+            return new Glob(fileSystem.getPathMatcher("glob:" + pattern), !pattern.contains("/"));
+        }
+
+        boolean matches(Path relative) {
+            Path target = onName ? relative.getFileName() : relative;
+            return target != null && matcher.matches(target);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.splice.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Walks an input tree in parallel, one fork/join task per directory, and hands the accepted
+ * files of each directory to a sink as soon as it is listed, so processing starts before the
+ * walk ends. The sink is called concurrently and may block to slow the walk down.
+ * Unreadable subdirectories are logged and skipped; symbolic links are not followed.
+ */
+public class FileDiscovery {
+    private static final Logger logger = LoggerFactory.getLogger(FileDiscovery.class);
+
+    private final Predicate<Path> supported;
+    private final DiscoveryFilter filter;
+    private final int parallelism;
+
+    /**
+     * @param supported   Whether a provider can handle a file; evaluated after the filter.
+     * @param parallelism Directories listed at the same time. Listing is I/O bound (e.g. on NFS), so this may exceed the core count.
+     */
+    public FileDiscovery(Predicate<Path> supported, DiscoveryFilter filter, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive. Received: " + parallelism);
+        }
+        this.supported = supported;
+        this.filter = filter;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param root A directory, or a single file that is then checked against the filter.
+     * @param sink Receives the accepted files of one directory at a time, never an empty list.
+     * @return The number of files handed to the sink.
+     */
+    public long walk(Path root, boolean recursive, Consumer<List<Path>> sink) throws IOException {
+        Path start = root.toAbsolutePath().normalize();
+        var matcher = filter.compile();
+        var found = new LongAdder();
+
+        BasicFileAttributes attributes = Files.readAttributes(start, BasicFileAttributes.class);
+        if (!attributes.isDirectory()) {
+            if (matcher.acceptsFile(start.getFileName(), attributes) && supported.test(start)) {
+                sink.accept(List.of(start));
+                return 1;
+            }
+            return 0;
+        }
+
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new DirectoryTask(start, start, recursive, matcher, sink, found, true));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        return found.sum();
+    }
+
+    /**
+     * Collects the accepted files of a tree; prefer {@link #walk} for large trees.
+     */
+    public List<Path> list(Path root, boolean recursive) throws IOException {
+        List<Path> files = new ArrayList<>();
+        walk(root, recursive, batch -> {
+            synchronized (files) {
+                files.addAll(batch);
+            }
+        });
+        return files;
+    }
+
+    @SuppressWarnings("serial") // Never serialized
+    private final class DirectoryTask extends RecursiveAction {
+        private final Path root;
+        private final Path dir;
+        private final boolean recursive;
+        private final DiscoveryFilter.Matcher matcher;
+        private final Consumer<List<Path>> sink;
+        private final LongAdder found;
+        private final boolean isRoot;
+
+        private DirectoryTask(Path root, Path dir, boolean recursive, DiscoveryFilter.Matcher matcher,
+                              Consumer<List<Path>> sink, LongAdder found, boolean isRoot) {
+            this.root = root;
+            this.dir = dir;
+            this.recursive = recursive;
+            this.matcher = matcher;
+            this.sink = sink;
+            this.found = found;
+            this.isRoot = isRoot;
+        }
+
+        @Override
+        protected void compute() {
+            List<DirectoryTask> subtasks = new ArrayList<>();
+            List<Path> accepted = new ArrayList<>();
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        logger.warn("Cannot read attributes, skipping: {}", entry);
+                        continue;
+                    }
+
+                    Path relative = root.relativize(entry);
+                    if (attributes.isDirectory()) {
+                        if (recursive && matcher.acceptsDirectory(relative)) {
+                            var subtask = new DirectoryTask(root, entry, true, matcher, sink, found, false);
+                            subtask.fork();
+                            subtasks.add(subtask);
+                        }
+                    } else if (attributes.isRegularFile() && matcher.acceptsFile(relative, attributes) && supported.test(entry)) {
+                        accepted.add(entry);
+                    }
+                }
+            } catch (IOException e) {
+                if (isRoot) throw new UncheckedIOException(e);
+                logger.warn("Cannot list directory, skipping: {}", dir, e);
+            }
+
+            if (!accepted.isEmpty()) {
+                found.add(accepted.size());
+                sink.accept(accepted);
+            }
+
+            for (var subtask : subtasks) {
+                subtask.join();
+            }
+        }
+    }
+}
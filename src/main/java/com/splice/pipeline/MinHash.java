@@ -0,0 +1,79 @@
+package com.splice.pipeline;
+
+import java.util.Arrays;
+
+/**
+ * MinHash signatures of texts over their word 4-grams. The share of equal positions in two signatures
+ * estimates the Jaccard similarity of the texts' shingle sets, whatever the texts' lengths.
+ */
+final class MinHash {
+    static final int SIGNATURE_LENGTH = 128;
+
+    private static final int SHINGLE_WORDS = 4;
+    /**
+     * Texts with fewer shingles (blank scans, cover pages) say too little to be compared.
+     */
+    private static final int MIN_SHINGLES = 16;
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private MinHash() {}
+
+    /**
+     * @return The signature of the text, or {@code null} if it is too short to be compared.
+     */
+    static long[] signature(String text) {
+        if (text == null) return null;
+
+        long[] signature = new long[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Long.MAX_VALUE);
+
+        // Hashes of the last words, in a ring, so no token list is built
+        long[] window = new long[SHINGLE_WORDS];
+        int words = 0;
+        int shingles = 0;
+
+        int i = 0;
+        while (i < text.length()) {
+            while (i < text.length() && !Character.isLetterOrDigit(text.charAt(i))) i++;
+            if (i == text.length()) break;
+
+            long word = FNV_OFFSET;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                word = (word ^ Character.toLowerCase(text.charAt(i++))) * FNV_PRIME;
+            }
+            window[words++ % SHINGLE_WORDS] = word;
+
+            if (words >= SHINGLE_WORDS) {
+                long shingle = FNV_OFFSET;
+                for (int w = words - SHINGLE_WORDS; w < words; w++) {
+                    shingle = (shingle ^ window[w % SHINGLE_WORDS]) * FNV_PRIME;
+                }
+                for (int s = 0; s < SIGNATURE_LENGTH; s++) {
+                    signature[s] = Math.min(signature[s], mix(shingle + (s + 1) * 0x9E3779B97F4A7C15L));
+                }
+                shingles++;
+            }
+        }
+
+        return shingles >= MIN_SHINGLES ? signature : null;
+    }
+
+    /**
+     * @return The estimated Jaccard similarity of the texts behind two signatures.
+     */
+    static double similarity(long[] a, long[] b) {
+        int equal = 0;
+        for (int s = 0; s < SIGNATURE_LENGTH; s++) {
+            if (a[s] == b[s]) equal++;
+        }
+        return (double) equal / SIGNATURE_LENGTH;
+    }
+
+    private static long mix(long h) {
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,71 @@
+package com.splice.pipeline;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Locality-sensitive hashing index of the MinHash signatures of a batch. Signatures are split into
+ * bands, and only documents sharing a whole band with the new one are compared to it, so a lookup
+ * costs about the same however many documents the batch holds.
+ * Documents are added once extracted, so a document is only ever skipped in favour of one whose
+ * report exists; two near-duplicates processed at the same time are both extracted. Thread-safe.
+ */
+final class NearDuplicateIndex {
+    /**
+     * 16 bands of 8 rows make documents about 70% similar or more likely to share a band.
+     */
+    private static final int BANDS = 16;
+    private static final int ROWS = MinHash.SIGNATURE_LENGTH / BANDS;
+
+    private final double similarity;
+    private final Map<String, long[]> signatures = new HashMap<>();
+    private final Map<Long, List<String>> buckets = new HashMap<>();
+
+    NearDuplicateIndex(double similarity) {
+        this.similarity = similarity;
+    }
+
+    /**
+     * Looks a signature up among the documents added so far.
+     *
+     * @param source    Key of the document, never reported as a duplicate of itself.
+     * @param signature Its {@link MinHash#signature}; {@code null} matches nothing.
+     * @return The key of the document it nearly duplicates, or {@code null}.
+     */
+    synchronized String find(String source, long[] signature) {
+        if (signature == null) return null;
+
+        for (int band = 0; band < BANDS; band++) {
+            for (String candidate : buckets.getOrDefault(bandKey(signature, band), List.of())) {
+                if (!candidate.equals(source)
+                        && MinHash.similarity(signature, signatures.get(candidate)) >= similarity) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a successfully extracted document; one added again replaces its earlier version.
+     */
+    synchronized void add(String source, long[] signature) {
+        if (signature == null) return;
+
+        signatures.put(source, signature);
+        for (int band = 0; band < BANDS; band++) {
+            List<String> bucket = buckets.computeIfAbsent(bandKey(signature, band), k -> new ArrayList<>(1));
+            if (!bucket.contains(source)) bucket.add(source);
+        }
+    }
+
+    private static long bandKey(long[] signature, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = key * 0x100000001B3L ^ signature[row];
+        }
+        return key;
+    }
+}
@@ -0,0 +1,27 @@
+package com.splice.pipeline;
+
+/**
+ * Whether, and how, documents repeating an earlier document of the batch are skipped.
+ *
+ * @param samplePages Leading pages whose text is compared; {@code 0} disables detection.
+ * @param similarity  Estimated Jaccard similarity of the sampled text from which a document is a near-duplicate.
+ */
+public record NearDuplicateOptions(int samplePages, double similarity) {
+    public static final double DEFAULT_SIMILARITY = 0.9;
+    public static final int DEFAULT_SAMPLE_PAGES = 3;
+
+    public static final NearDuplicateOptions NONE = new NearDuplicateOptions(0, DEFAULT_SIMILARITY);
+
+    public NearDuplicateOptions {
+        if (samplePages < 0) {
+            throw new IllegalArgumentException("Sampled pages must be zero or positive. Received: " + samplePages);
+        }
+        if (similarity <= 0 || similarity > 1) {
+            throw new IllegalArgumentException("Similarity must be within (0, 1]. Received: " + similarity);
+        }
+    }
+
+    public boolean enabled() {
+        return samplePages > 0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.splice.pipeline;
+
+import java.time.Duration;
+
+/**
+ * Bounds on the work a single document may cause.
+ *
+ * @param documentTimeout Budget of a whole document; {@link Duration#ZERO} for none.
+ * @param pageTimeout     Budget of each page; {@link Duration#ZERO} for none.
+ * @param quarantineAfter Timeouts or abandonments (of an unchanged file) after which later runs skip the document;
+ *                        0 to ignore the quarantine.
+ */
+public record ProcessingLimits(Duration documentTimeout, Duration pageTimeout, int quarantineAfter) {
+    public static final ProcessingLimits NONE = new ProcessingLimits(Duration.ZERO, Duration.ZERO, 2);
+
+    public ProcessingLimits {
+        if (documentTimeout == null || documentTimeout.isNegative()) {
+            throw new IllegalArgumentException("Document timeout must be zero or positive. Received: " + documentTimeout);
+        }
+        if (pageTimeout == null || pageTimeout.isNegative()) {
+            throw new IllegalArgumentException("Page timeout must be zero or positive. Received: " + pageTimeout);
+        }
+        if (quarantineAfter < 0) {
+            throw new IllegalArgumentException("Quarantine threshold must be zero or positive. Received: " + quarantineAfter);
+        }
+    }
+
+    public boolean hasDocumentTimeout() {
+        return !documentTimeout.isZero();
+    }
+}
@@ -0,0 +1,194 @@
+package com.splice.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only record of the documents a batch has finished, kept in the output root.
+ * One tab-separated line per document: source path (relative to the input root), size, mtime,
+ * content hash, output path (relative to the output root) and page count. A document skipped as a
+ * near-duplicate has no output of its own and a seventh field naming the source it repeats.
+ * Later lines win, and a line cut short by a crash is ignored on load.
+ */
+public class ProgressJournal implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ProgressJournal.class);
+
+    public static final String FILE_NAME = ".splice-journal";
+
+    private static final int FIELDS = 6;
+    private static final int DUPLICATE_FIELDS = 7;
+
+    private final Path file;
+    private final Map<String, Entry> entries;
+    private final Map<String, String> outputs = new ConcurrentHashMap<>();
+    private final BufferedWriter out;
+
+    /**
+     * @param duplicateOf The source this document nearly duplicates, in which case it has no output; otherwise {@code null}.
+     */
+    public record Entry(String source, long size, long lastModified, String hash, String output, int pages,
+                        String duplicateOf) {
+        public Entry(String source, long size, long lastModified, String hash, String output, int pages) {
+            this(source, size, lastModified, hash, output, pages, null);
+        }
+
+        /**
+         * Records a document skipped because it nearly duplicates another source.
+         */
+        public static Entry duplicate(String source, long size, long lastModified, String duplicateOf) {
+            return new Entry(source, size, lastModified, null, null, 0, Objects.requireNonNull(duplicateOf));
+        }
+
+        public boolean matches(long size, long lastModified) {
+            return this.size == size && this.lastModified == lastModified;
+        }
+    }
+
+    private ProgressJournal(Path file, Map<String, Entry> entries) throws IOException {
+        this.file = file;
+        this.entries = entries;
+        entries.values().stream()
+                .filter(entry -> entry.duplicateOf() == null)
+                .forEach(entry -> outputs.put(entry.output(), entry.source()));
+
+        boolean needsSeparator = Files.size(file) > 0 && !endsWithNewline(file);
+        this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        if (needsSeparator) {
+            out.newLine();
+            out.flush();
+        }
+    }
+
+    /**
+     * Opens the journal of an output root, creating it if needed.
+     *
+     * @param load {@code true} to read previous entries (resume); {@code false} to only append.
+     */
+    public static ProgressJournal open(Path outputRoot, boolean load) throws IOException {
+        Path file = outputRoot.resolve(FILE_NAME);
+        try {
+            Files.createFile(file);
+        } catch (FileAlreadyExistsException ignored) {
+            // Left by an earlier run, or just created by another session on the same output root
+        }
+
+        Map<String, Entry> entries = new ConcurrentHashMap<>();
+        if (load) {
+            try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+                lines.map(ProgressJournal::parse)
+                        .filter(Objects::nonNull)
+                        .forEach(entry -> entries.put(entry.source(), entry));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            logger.info("Journal loaded: {} completed documents", entries.size());
+        }
+
+        return new ProgressJournal(file, entries);
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Returns the entry of a source whose size and mtime are unchanged since it was recorded, or null.
+     */
+    public Entry completed(String source, long size, long lastModified) {
+        Entry entry = entries.get(source);
+        return entry != null && entry.matches(size, lastModified) ? entry : null;
+    }
+
+    /**
+     * Returns the source whose recorded report is at the given output path, or null.
+     */
+    public String sourceOf(String output) {
+        return outputs.get(output);
+    }
+
+    /**
+     * Appends an entry and flushes it, so that it survives the process being killed.
+     * The entry is visible to lookups of this journal right away.
+     */
+    public synchronized void record(Entry entry) throws IOException {
+        out.write(escape(entry.source()) + '\t' + entry.size() + '\t' + entry.lastModified() + '\t'
+                + escape(entry.hash()) + '\t' + escape(entry.output()) + '\t' + entry.pages()
+                + (entry.duplicateOf() != null ? '\t' + escape(entry.duplicateOf()) : ""));
+        out.newLine();
+        out.flush();
+
+        entries.put(entry.source(), entry);
+        if (entry.duplicateOf() == null) {
+            outputs.put(entry.output(), entry.source());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    private static Entry parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != FIELDS && fields.length != DUPLICATE_FIELDS) return null;
+        try {
+            return new Entry(
+                    unescape(fields[0]),
+                    Long.parseLong(fields[1]),
+                    Long.parseLong(fields[2]),
+                    unescape(fields[3]),
+                    unescape(fields[4]),
+                    Integer.parseInt(fields[5]),
+                    fields.length == DUPLICATE_FIELDS ? unescape(fields[6]) : null
+            );
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean endsWithNewline(Path file) throws IOException {
+        try (var channel = Files.newByteChannel(file)) {
+            var last = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(last);
+            return last.get(0) == '\n';
+        }
+    }
+
+    static String escape(String value) {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    static String unescape(String value) {
+        var sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(switch (next) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> next;
+                });
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package com.splice.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Documents that timed out or were abandoned, kept in the output root next to the {@link ProgressJournal}.
+ * One tab-separated line per strike: source path, size, mtime, strike count and reason.
+ * A document reaching the threshold is skipped until its size or mtime changes; a threshold of 0
+ * still records strikes but never skips.
+ */
+public class Quarantine implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(Quarantine.class);
+
+    public static final String FILE_NAME = ".splice-quarantine";
+
+    private static final int FIELDS = 5;
+
+    private final int threshold;
+    private final Map<String, Strike> strikes;
+    private final BufferedWriter out;
+
+    private record Strike(long size, long lastModified, int count) {}
+
+    private Quarantine(Path file, int threshold, Map<String, Strike> strikes) throws IOException {
+        this.threshold = threshold;
+        this.strikes = strikes;
+        this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    public static Quarantine open(Path outputRoot, int threshold) throws IOException {
+        Path file = outputRoot.resolve(FILE_NAME);
+        Map<String, Strike> strikes = new ConcurrentHashMap<>();
+
+        if (Files.exists(file)) {
+            try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+                lines.forEach(line -> {
+                    String[] fields = line.split("\t", -1);
+                    if (fields.length != FIELDS) return;
+                    try {
+                        strikes.put(ProgressJournal.unescape(fields[0]), new Strike(Long.parseLong(fields[1]), Long.parseLong(fields[2]), Integer.parseInt(fields[3])));
+                    } catch (NumberFormatException ignored) {
+                        // Line cut short by a crash
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        return new Quarantine(file, threshold, strikes);
+    }
+
+    public boolean isQuarantined(String source, long size, long lastModified) {
+        Strike strike = strikes.get(source);
+        return threshold > 0 && strike != null && strike.size() == size && strike.lastModified() == lastModified && strike.count() >= threshold;
+    }
+
+    /**
+     * Records a timeout or abandonment of a document and persists it immediately.
+     */
+    public synchronized void strike(String source, long size, long lastModified, String reason) throws IOException {
+        Strike previous = strikes.get(source);
+        int count = previous != null && previous.size() == size && previous.lastModified() == lastModified
+                ? previous.count() + 1
+                : 1;
+        strikes.put(source, new Strike(size, lastModified, count));
+
+        out.write(ProgressJournal.escape(source) + '\t' + size + '\t' + lastModified + '\t' + count + '\t'
+                + ProgressJournal.escape(reason));
+        out.newLine();
+        out.flush();
+
+        if (count >= threshold) {
+            logger.warn("Quarantined after {} strikes: {}", count, source);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,56 @@
+package com.splice.server;
+
+import java.nio.file.Path;
+
+/**
+ * Mutable state of a submitted job. Updated by the worker running it and read by pollers.
+ */
+class Job {
+    private final String id;
+    private final Path input;
+    private final Path output;
+    private final boolean recursive;
+    private final long submittedAt = System.currentTimeMillis();
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile int pagesProcessed;
+    private volatile String error;
+    private volatile long finishedAt;
+
+    Job(String id, Path input, Path output, boolean recursive) {
+        this.id = id;
+        this.input = input;
+        this.output = output;
+        this.recursive = recursive;
+    }
+
+    String id() { return id; }
+
+    Path input() { return input; }
+
+    Path output() { return output; }
+
+    boolean recursive() { return recursive; }
+
+    JobStatus status() { return status; }
+
+    void markRunning() {
+        this.status = JobStatus.RUNNING;
+    }
+
+    void markSucceeded(int pages) {
+        this.pagesProcessed = pages;
+        this.finishedAt = System.currentTimeMillis();
+        this.status = JobStatus.SUCCEEDED;
+    }
+
+    void markFailed(String message) {
+        this.error = message;
+        this.finishedAt = System.currentTimeMillis();
+        this.status = JobStatus.FAILED;
+    }
+
+    JobView view() {
+        return new JobView(id, status, input.toString(), output.toString(), pagesProcessed, error, submittedAt, finishedAt);
+    }
+}
@@ -0,0 +1,7 @@
+package com.splice.server;
+
+public record JobRequest(
+    String input,
+    String output,
+    boolean recursive
+) {}
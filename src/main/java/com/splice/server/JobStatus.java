@@ -0,0 +1,12 @@
+package com.splice.server;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
@@ -0,0 +1,12 @@
+package com.splice.server;
+
+public record JobView(
+    String id,
+    JobStatus status,
+    String input,
+    String output,
+    int pagesProcessed,
+    String error,
+    long submittedAt,
+    long finishedAt
+) {}
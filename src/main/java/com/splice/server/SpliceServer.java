@@ -0,0 +1,242 @@
+package com.splice.server;
+
+import com.splice.pipeline.BatchProcessor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Resident ingestion service. Keeps a warm {@link BatchProcessor} (detector, model and JIT state)
+ * and accepts jobs over a local HTTP endpoint:
+ * <ul>
+ *     <li>{@code POST /jobs} with {@code {"input": ..., "output": ..., "recursive": ...}} queues a job and returns it.</li>
+ *     <li>{@code GET /jobs/{id}} returns the current state of a job.</li>
+ *     <li>{@code GET /health} reports liveness.</li>
+ * </ul>
+ * Jobs writing to the same output root run one after another, since they share its journal and
+ * quarantine, and must read from the same input root, since journal entries are relative to it.
+ */
+public class SpliceServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SpliceServer.class);
+
+    private static final String JOBS_PATH = "/jobs";
+    private static final String HEALTH_PATH = "/health";
+    private static final int MAX_RETAINED_JOBS = 10_000;
+
+    private final BatchProcessor processor;
+    private final HttpServer httpServer;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService requestExecutor;
+    private final ObjectMapper mapper;
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private final Map<Path, OutputRoot> outputs = new HashMap<>();
+
+    /**
+     * Output root with jobs queued or running, and the last of them.
+     */
+    private static final class OutputRoot {
+        private final Path input;
+        private CompletableFuture<Void> last = CompletableFuture.completedFuture(null);
+        private int pending;
+
+        private OutputRoot(Path input) {
+            this.input = input;
+        }
+    }
+
+    /**
+     * @param address           Address to bind; use a loopback address to keep the service local.
+     * @param maxConcurrentJobs Number of jobs processed at the same time. Further jobs stay queued.
+     */
+    public SpliceServer(BatchProcessor processor, InetSocketAddress address, int maxConcurrentJobs) throws IOException {
+        if (maxConcurrentJobs <= 0) {
+            throw new IllegalArgumentException("At least one concurrent job is required. Received: " + maxConcurrentJobs);
+        }
+        this.processor = processor;
+        this.mapper = JsonMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES)
+                .build();
+        this.jobExecutor = Executors.newFixedThreadPool(maxConcurrentJobs, Thread.ofVirtual().name("splice-job-", 0).factory());
+        this.requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+        this.httpServer = HttpServer.create(address, 0);
+        this.httpServer.setExecutor(requestExecutor);
+    }
+
+    public void start() {
+        // Registered here rather than in the constructor, so handlers never see a partly built server
+        httpServer.createContext(JOBS_PATH, this::handleJobs);
+        httpServer.createContext(HEALTH_PATH, exchange -> respond(exchange, 200, Map.of("status", "UP")));
+        httpServer.start();
+        logger.info("Splice server listening on {}", httpServer.getAddress());
+    }
+
+    public InetSocketAddress address() {
+        return httpServer.getAddress();
+    }
+
+    /**
+     * Queues a job and returns its initial state.
+     */
+    public JobView submit(JobRequest request) {
+        if (request == null || request.input() == null || request.output() == null) {
+            throw new IllegalArgumentException("Both 'input' and 'output' are required");
+        }
+
+        var job = new Job(UUID.randomUUID().toString(), Path.of(request.input()), Path.of(request.output()), request.recursive());
+        Path output = job.output().toAbsolutePath().normalize();
+        Path input = inputRootOf(job.input());
+
+        synchronized (outputs) {
+            OutputRoot root = outputs.computeIfAbsent(output, k -> new OutputRoot(input));
+            if (!root.input.equals(input)) {
+                throw new IllegalArgumentException("Output " + output + " is already being filled from " + root.input);
+            }
+            register(job);
+            root.pending++;
+            root.last = root.last.exceptionally(e -> null).thenRunAsync(() -> {
+                try {
+                    run(job);
+                } finally {
+                    release(output);
+                }
+            }, jobExecutor);
+        }
+
+        return job.view();
+    }
+
+    public JobView poll(String id) {
+        synchronized (jobs) {
+            Job job = jobs.get(id);
+            return job != null ? job.view() : null;
+        }
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        jobExecutor.shutdownNow();
+        requestExecutor.shutdownNow();
+    }
+
+    private void run(Job job) {
+        try {
+            MDC.put("job", job.id());
+            job.markRunning();
+            int pages = processor.process(job.input(), job.output(), job.recursive());
+            job.markSucceeded(pages);
+        } catch (Exception e) {
+            logger.error("Job failed: {}", job.id(), e);
+            job.markFailed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            MDC.remove("job");
+        }
+    }
+
+    private void release(Path output) {
+        synchronized (outputs) {
+            OutputRoot root = outputs.get(output);
+            if (root != null && --root.pending == 0) {
+                outputs.remove(output);
+            }
+        }
+    }
+
+    /**
+     * The directory a job's documents are relative to: the input itself, or the directory of a single document.
+     */
+    private static Path inputRootOf(Path input) {
+        Path absolute = input.toAbsolutePath().normalize();
+        return Files.isDirectory(absolute) || absolute.getParent() == null ? absolute : absolute.getParent();
+    }
+
+    private void register(Job job) {
+        synchronized (jobs) {
+            jobs.put(job.id(), job);
+            if (jobs.size() <= MAX_RETAINED_JOBS) return;
+
+            Iterator<Job> oldest = jobs.values().iterator();
+            while (jobs.size() > MAX_RETAINED_JOBS && oldest.hasNext()) {
+                if (oldest.next().status().isFinished()) oldest.remove();
+            }
+        }
+    }
+
+    private void handleJobs(HttpExchange exchange) throws IOException {
+        try {
+            routeJobs(exchange);
+        } catch (JacksonException | IllegalArgumentException e) {
+            respond(exchange, 400, Map.of("error", String.valueOf(e.getMessage())));
+        } catch (RuntimeException e) {
+            logger.error("Request failed: {}", exchange.getRequestURI(), e);
+            respond(exchange, 500, Map.of("error", "Internal error"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void routeJobs(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+
+        if (path.equals(JOBS_PATH) || path.equals(JOBS_PATH + "/")) {
+            if (!"POST".equals(method)) {
+                respond(exchange, 405, Map.of("error", "Use POST to submit a job"));
+                return;
+            }
+            JobRequest request;
+            try (InputStream body = exchange.getRequestBody()) {
+                request = mapper.readValue(body, JobRequest.class);
+            }
+            respond(exchange, 202, submit(request));
+            return;
+        }
+
+        if (!"GET".equals(method)) {
+            respond(exchange, 405, Map.of("error", "Use GET to poll a job"));
+            return;
+        }
+
+        String id = path.substring(JOBS_PATH.length() + 1);
+        JobView view = poll(id);
+        if (view == null) {
+            respond(exchange, 404, Map.of("error", "Unknown job: " + id));
+        } else {
+            respond(exchange, 200, view);
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] payload = mapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, payload.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(payload);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.splice.cluster;
+
+import com.splice.detection.LayoutDetector;
+import com.splice.extraction.DocumentExtractor;
+import com.splice.extraction.spi.AssetStorage;
+import com.splice.extraction.spi.ExtractorProvider;
+import com.splice.io.ResultWriter;
+import com.splice.model.document.DocumentMetadata;
+import com.splice.model.document.IngestedDocument;
+import com.splice.pipeline.BatchProcessor;
+import com.splice.pipeline.CostEstimator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoordinatorTests {
+
+    @TempDir
+    Path tempDir;
+    Path inputDir;
+    Path outputDir;
+
+    @Mock
+    private ExtractorProvider mockProvider;
+    @Mock
+    private DocumentExtractor mockExtractor;
+    @Mock
+    private ResultWriter mockWriter;
+    @Mock
+    private IngestedDocument dummyDoc;
+    @Mock
+    private DocumentMetadata dummyMetadata;
+    @Mock
+    private LayoutDetector mockDetector;
+
+    private BatchProcessor processor;
+
+    @BeforeEach
+    void setup() throws IOException {
+        inputDir = Files.createDirectory(tempDir.resolve("in"));
+        outputDir = Files.createDirectory(tempDir.resolve("out"));
+
+        processor = new BatchProcessor(mockWriter, List.of(mockProvider), mockDetector);
+
+        lenient().when(mockWriter.extension()).thenReturn(".json");
+        lenient().when(dummyDoc.metadata()).thenReturn(dummyMetadata);
+        lenient().when(dummyMetadata.totalPages()).thenReturn(2);
+        lenient().when(mockProvider.supports(any())).thenReturn(true);
+        lenient().when(mockProvider.create(any(AssetStorage.class), eq(mockDetector))).thenReturn(mockExtractor);
+    }
+
+    @Test
+    @DisplayName("Should spread documents over workers and retry the unit of a vanished worker")
+    void shouldDistributeAndRetry() throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            files.add(Files.writeString(inputDir.resolve("doc" + i + ".pdf"), "x".repeat(i + 1)));
+        }
+        when(mockExtractor.extract(any(Path.class))).thenReturn(dummyDoc);
+
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (var coordinator = new Coordinator(address, new CostEstimator(List.of(mockProvider)), Duration.ofSeconds(5), 3);
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            coordinator.start();
+
+            var running = executor.submit(() -> coordinator.run(files));
+
+            // A worker that takes the largest document and dies without answering
+            try (var rogue = new Connection(new Socket(coordinator.address().getAddress(), coordinator.address().getPort()))) {
+                Message taken;
+                do {
+                    rogue.send(Message.of(Message.NEXT));
+                    taken = rogue.receive();
+                } while (!Message.UNIT.equals(taken.type()));
+
+                assertEquals(files.getLast().toAbsolutePath().toString(), taken.file());
+            }
+
+            for (int i = 0; i < 2; i++) {
+                executor.submit(() -> new Worker(processor, inputDir, outputDir, false, coordinator.address(), 2).run());
+            }
+
+            assertEquals(12, running.get());
+            assertFalse(coordinator.hasPendingWork());
+        }
+
+        for (Path file : files) {
+            verify(mockExtractor).extract(file.toAbsolutePath());
+        }
+    }
+
+    @Test
+    @DisplayName("Should give up on a document after the maximum number of attempts")
+    void shouldFailAfterMaxAttempts() throws Exception {
+        Path poison = Files.writeString(inputDir.resolve("poison.pdf"), "x");
+        Path good = Files.writeString(inputDir.resolve("good.pdf"), "x");
+        when(mockExtractor.extract(poison.toAbsolutePath())).thenThrow(new RuntimeException("native crash"));
+        when(mockExtractor.extract(good.toAbsolutePath())).thenReturn(dummyDoc);
+
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (var coordinator = new Coordinator(address, new CostEstimator(List.of(mockProvider)), Duration.ofSeconds(5), 2);
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            coordinator.start();
+            executor.submit(() -> new Worker(processor, inputDir, outputDir, false, coordinator.address(), 1).run());
+
+            assertEquals(2, coordinator.run(List.of(poison, good)));
+        }
+
+        verify(mockExtractor, times(2)).extract(poison.toAbsolutePath());
+    }
+
+    @Test
+    @DisplayName("Should fail a unit released after the last worker is gone instead of waiting forever")
+    void shouldFailUnitsReleasedWithoutWorkers() throws Exception {
+        Path doc = Files.writeString(inputDir.resolve("doc.pdf"), "x");
+
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (var coordinator = new Coordinator(address, new CostEstimator(List.of(mockProvider)), Duration.ofSeconds(5), 3);
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            coordinator.start();
+            var running = executor.submit(() -> coordinator.run(List.of(doc)));
+
+            // The last worker process crashes holding a unit; its exit is seen before its connection closes
+            try (var crashed = new Connection(new Socket(coordinator.address().getAddress(), coordinator.address().getPort()))) {
+                Message taken;
+                do {
+                    crashed.send(Message.of(Message.NEXT));
+                    taken = crashed.receive();
+                } while (!Message.UNIT.equals(taken.type()));
+
+                coordinator.noWorkersLeft("no worker process left");
+            }
+
+            assertEquals(0, running.get(5, TimeUnit.SECONDS));
+            assertEquals(1, coordinator.failed());
+            assertFalse(coordinator.hasPendingWork());
+        }
+    }
+
+    @Test
+    @DisplayName("Should probe document costs without holding up connected workers")
+    void shouldProbeOutsideTheLock() throws Exception {
+        Path doc = Files.writeString(inputDir.resolve("doc.pdf"), "x");
+        var probing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(mockProvider.probePageCount(any())).thenAnswer(invocation -> {
+            probing.countDown();
+            release.await();
+            return 2;
+        });
+        when(mockExtractor.extract(any(Path.class))).thenReturn(dummyDoc);
+
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (var coordinator = new Coordinator(address, new CostEstimator(List.of(mockProvider)), Duration.ofSeconds(5), 3);
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            coordinator.start();
+            var running = executor.submit(() -> coordinator.run(List.of(doc)));
+            assertTrue(probing.await(5, TimeUnit.SECONDS));
+
+            assertTrue(executor.submit(coordinator::hasPendingWork).get(5, TimeUnit.SECONDS));
+
+            release.countDown();
+            executor.submit(() -> new Worker(processor, inputDir, outputDir, false, coordinator.address(), 1).run());
+            assertEquals(2, running.get(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.splice.cluster;
+
+import com.splice.pipeline.CostEstimator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalClusterTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should fail the documents once crashing workers run out of restarts")
+    void shouldFailWorkWhenWorkersKeepCrashing() throws Exception {
+        Path doc = Files.writeString(tempDir.resolve("doc.pdf"), "x");
+
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (var coordinator = new Coordinator(address, new CostEstimator(List.of()));
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            coordinator.start();
+
+            // Workers reject their command line and exit with an error before connecting
+            try (var cluster = new LocalCluster(coordinator, 1, List.of("--no-such-option"))) {
+                cluster.start();
+                var running = executor.submit(() -> coordinator.run(List.of(doc)));
+
+                assertEquals(0, running.get(2, TimeUnit.MINUTES));
+            }
+            assertEquals(1, coordinator.failed());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.splice.detection;
+
+import com.splice.model.geometry.BoundingBox;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LetterboxTests {
+
+    @Test
+    @DisplayName("Should scale the longer side to the input size and pad the shorter one")
+    void shouldFitPortraitPage() {
+        var letterbox = Letterbox.fit(612, 792, 640);
+
+        assertEquals(640f / 792f, letterbox.scale(), 1e-6);
+        assertEquals(0f, letterbox.offsetY(), 1e-4);
+        assertTrue(letterbox.offsetX() > 0, "Portrait pages should be padded horizontally");
+        assertEquals(640, letterbox.contentHeight());
+    }
+
+    @Test
+    @DisplayName("Should map boxes from input space back to the source surface")
+    void shouldMapBackToSource() {
+        var letterbox = Letterbox.fit(612, 792, 640);
+        float s = letterbox.scale();
+
+        var inputBox = new BoundingBox(letterbox.offsetX() + 100 * s, 50 * s, 200 * s, 300 * s);
+        var sourceBox = letterbox.toSource(inputBox);
+
+        assertEquals(100f, sourceBox.x(), 1e-3);
+        assertEquals(50f, sourceBox.y(), 1e-3);
+        assertEquals(200f, sourceBox.width(), 1e-3);
+        assertEquals(300f, sourceBox.height(), 1e-3);
+    }
+
+    @Test
+    @DisplayName("Should clip boxes that spill onto the padding")
+    void shouldClipPadding() {
+        var letterbox = Letterbox.fit(612, 792, 640);
+
+        var sourceBox = letterbox.toSource(new BoundingBox(0, 0, 640, 640));
+
+        assertEquals(0f, sourceBox.x(), 1e-3);
+        assertEquals(612f, sourceBox.width(), 1e-2);
+        assertEquals(792f, sourceBox.height(), 1e-2);
+    }
+
+    @Test
+    @DisplayName("Should be the identity for a square surface of the input size")
+    void shouldBeIdentityForMatchingSquare() {
+        assertTrue(Letterbox.fit(640, 640, 640).isIdentity());
+        assertFalse(Letterbox.fit(1280, 1280, 640).isIdentity());
+    }
+}
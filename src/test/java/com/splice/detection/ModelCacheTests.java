@@ -0,0 +1,70 @@
+package com.splice.detection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelCacheTests {
+    private static final String RESOURCE = "/sample.pdf";
+
+    @TempDir
+    Path cacheRoot;
+
+    @Test
+    @DisplayName("Should extract the resource once into a checksum-named directory")
+    void shouldExtractIntoContentAddressedDirectory() throws IOException {
+        var cache = new ModelCache(cacheRoot);
+
+        Path entryDir = cache.resolve(RESOURCE, "model.onnx");
+        Path cached = entryDir.resolve("model.onnx");
+
+        assertTrue(Files.isRegularFile(cached));
+        assertEquals(64, entryDir.getFileName().toString().length(), "Directory should be named by SHA-256");
+        try (InputStream original = Objects.requireNonNull(getClass().getResourceAsStream(RESOURCE))) {
+            assertArrayEquals(original.readAllBytes(), Files.readAllBytes(cached));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reuse the cached copy on later resolutions")
+    void shouldReuseCachedCopy() throws IOException {
+        var cache = new ModelCache(cacheRoot);
+
+        Path first = cache.resolve(RESOURCE, "model.onnx");
+        long firstModified = Files.getLastModifiedTime(first.resolve("model.onnx")).toMillis();
+
+        Path second = new ModelCache(cacheRoot).resolve(RESOURCE, "model.onnx");
+
+        assertEquals(first, second);
+        assertEquals(firstModified, Files.getLastModifiedTime(second.resolve("model.onnx")).toMillis());
+    }
+
+    @Test
+    @DisplayName("Should re-extract when the cached file has been damaged")
+    void shouldRepairTruncatedEntry() throws IOException {
+        var cache = new ModelCache(cacheRoot);
+        Path entryDir = cache.resolve(RESOURCE, "model.onnx");
+        Files.write(entryDir.resolve("model.onnx"), new byte[]{1, 2, 3});
+
+        Path repaired = cache.resolve(RESOURCE, "model.onnx");
+
+        assertEquals(entryDir, repaired);
+        assertTrue(Files.size(repaired.resolve("model.onnx")) > 3);
+    }
+
+    @Test
+    @DisplayName("Should fail loudly for a missing resource")
+    void shouldRejectMissingResource() {
+        var cache = new ModelCache(cacheRoot);
+
+        assertThrows(IllegalStateException.class, () -> cache.resolve("/missing.onnx", "model.onnx"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.splice.detection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.nio.FloatBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class YoloTensorTranslatorTests {
+    private static final int SIZE = 4;
+
+    private final YoloTensorTranslator translator = new YoloTensorTranslator(SIZE, 0.5f, 0.4f);
+
+    @Test
+    @DisplayName("Should write normalised pixels as planar CHW floats")
+    void shouldWriteChwPlanes() {
+        var image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(1, 2, 0xFF8000);
+
+        FloatBuffer buffer = translator.allocateInput();
+        translator.fill(image, buffer, new int[SIZE]);
+
+        int index = 2 * SIZE + 1;
+        int plane = SIZE * SIZE;
+
+        assertEquals(3 * plane, buffer.capacity());
+        assertEquals(1f, buffer.get(index), 1e-6);
+        assertEquals(128f / 255f, buffer.get(plane + index), 1e-6);
+        assertEquals(0f, buffer.get(2 * plane + index), 1e-6);
+        assertEquals(0f, buffer.get(0), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Should give the same result for non-packed rasters")
+    void shouldHandleOtherImageTypes() {
+        var packed = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        var bgr = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_3BYTE_BGR);
+        packed.setRGB(3, 3, 0x102030);
+        bgr.setRGB(3, 3, 0x102030);
+
+        FloatBuffer expected = translator.allocateInput();
+        FloatBuffer actual = translator.allocateInput();
+        translator.fill(packed, expected, new int[SIZE]);
+        translator.fill(bgr, actual, new int[SIZE]);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Should reject images that are not already at the input size")
+    void shouldRejectWrongSize() {
+        var image = new BufferedImage(SIZE + 1, SIZE, BufferedImage.TYPE_INT_RGB);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> translator.fill(image, translator.allocateInput(), new int[SIZE]));
+    }
+}
@@ -0,0 +1,118 @@
+package com.splice.detection.heuristic;
+
+import com.splice.extraction.pdf.text.TextExtractor;
+import com.splice.model.document.ElementType;
+import com.splice.model.document.content.TextContent;
+import com.splice.model.layout.LayoutElement;
+import com.splice.model.layout.PageLayout;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeuristicLayoutDetectorTests {
+    private final HeuristicLayoutDetector detector;
+
+    HeuristicLayoutDetectorTests() throws IOException {
+        this.detector = new HeuristicLayoutDetector();
+    }
+
+    @Test
+    @DisplayName("Should lay out a born-digital page without rendering it")
+    void shouldDetectTitleAndBodyText() throws IOException {
+        try (PDDocument document = createArticle()) {
+            PageLayout layout = detector.detect(document, 1);
+
+            assertNotNull(layout, "A plain text page should not be deferred to visual detection");
+            assertAll("Structural layout",
+                    () -> assertEquals(1, count(layout, ElementType.TITLE)),
+                    () -> assertEquals(1, count(layout, ElementType.TEXT)),
+                    () -> assertEquals(1, count(layout, ElementType.TABLE))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Should produce regions the text extractor can read back")
+    void shouldProduceRegionsCompatibleWithTextExtraction() throws IOException {
+        try (PDDocument document = createArticle()) {
+            PageLayout layout = detector.detect(document, 1);
+            LayoutElement title = layout.elements().stream()
+                    .filter(e -> e.type() == ElementType.TITLE)
+                    .findFirst()
+                    .orElseThrow();
+
+            var elements = new TextExtractor().extractRegion(document, 1, title.box(), title);
+
+            assertEquals(1, elements.size());
+            assertEquals("Quarterly Report", ((TextContent) elements.getFirst().content()).text().strip());
+        }
+    }
+
+    @Test
+    @DisplayName("Should defer scanned pages to visual detection")
+    void shouldDeferScannedPages() throws IOException, URISyntaxException {
+        File scanned = new File(Objects.requireNonNull(getClass().getResource("/scanned.pdf")).toURI());
+
+        try (PDDocument document = Loader.loadPDF(scanned)) {
+            assertNull(detector.detect(document, 1));
+        }
+    }
+
+    private long count(PageLayout layout, ElementType type) {
+        return layout.elements().stream().filter(e -> e.type() == type).count();
+    }
+
+    private PDDocument createArticle() throws IOException {
+        PDDocument document = new PDDocument();
+        PDPage page = new PDPage(PDRectangle.LETTER);
+        document.addPage(page);
+
+        var bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+        var regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+
+        try (var stream = new PDPageContentStream(document, page)) {
+            writeLine(stream, bold, 24, 72, 680, "Quarterly Report");
+
+            float y = 620;
+            for (int i = 0; i < 4; i++) {
+                writeLine(stream, regular, 11, 72, y, "Revenue grew steadily across every region during the quarter.");
+                y -= 14;
+            }
+
+            stream.setLineWidth(0.5f);
+            for (int row = 0; row <= 3; row++) {
+                stream.moveTo(72, 450 - row * 20);
+                stream.lineTo(472, 450 - row * 20);
+            }
+            for (int col = 0; col <= 2; col++) {
+                stream.moveTo(72 + col * 200, 450);
+                stream.lineTo(72 + col * 200, 390);
+            }
+            stream.stroke();
+        }
+
+        return document;
+    }
+
+    private void writeLine(PDPageContentStream stream, PDType1Font font, float size, float x, float y, String text) throws IOException {
+        stream.beginText();
+        stream.setFont(font, size);
+        stream.newLineAtOffset(x, y);
+        stream.showText(text);
+        stream.endText();
+    }
+}
@@ -0,0 +1,39 @@
+package com.splice.extraction;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineTests {
+
+    @Test
+    @DisplayName("Should apply the caller's deadline to a task propagated to a pool thread")
+    void shouldPropagateToPoolThreads() throws Exception {
+        Deadline deadline = Deadline.start(Duration.ofMillis(50), null);
+        try (ExecutorService pool = Executors.newSingleThreadExecutor()) {
+            assertTrue(Deadline.remainingNanos() > 0);
+            assertEquals(Long.MAX_VALUE, pool.submit(Deadline::remainingNanos).get(),
+                    "A pool thread has no deadline of its own");
+
+            Thread.sleep(100);
+            var task = CompletableFuture.supplyAsync(Deadline.propagate(() -> {
+                Deadline.check();
+                return "finished";
+            }), pool);
+
+            var failure = assertThrows(ExecutionException.class, task::get);
+            assertInstanceOf(ExtractionTimeoutException.class, failure.getCause());
+            assertEquals(Long.MAX_VALUE, pool.submit(Deadline::remainingNanos).get(),
+                    "The deadline should be removed from the pool thread afterwards");
+        } finally {
+            deadline.close();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.splice.extraction.pdf;
+
+import com.splice.model.document.DocumentElement;
+import com.splice.model.document.ElementType;
+import com.splice.model.document.Location;
+import com.splice.model.document.content.TableCell;
+import com.splice.model.document.content.TableContent;
+import com.splice.model.document.content.TextContent;
+import com.splice.model.geometry.BoundingBox;
+import com.splice.model.layout.LayoutElement;
+import com.splice.model.layout.PageLayout;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationRubberStamp;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCacheTests {
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    @DisplayName("Should key pages by content and settings, not by document")
+    void shouldKeyPagesByContent() throws IOException {
+        try (PDDocument first = new PDDocument(); PDDocument second = new PDDocument()) {
+            PDPage page = addPage(first, "Chapter 1");
+            PDPage samePage = addPage(second, "Chapter 1");
+            PDPage changedPage = addPage(second, "Chapter 2");
+
+            String key = PageCache.keyOf(page, "dpi=72");
+
+            assertEquals(key, PageCache.keyOf(samePage, "dpi=72"));
+            assertNotEquals(key, PageCache.keyOf(changedPage, "dpi=72"));
+            assertNotEquals(key, PageCache.keyOf(page, "dpi=144"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should key pages sharing cyclic resources as if each were keyed alone")
+    void shouldReuseSharedDigests() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            // A form whose resources hold the form itself, shared by both pages
+            var resources = new COSDictionary();
+            var form = new COSStream();
+            form.setItem(COSName.SUBTYPE, COSName.FORM);
+            form.setItem(COSName.RESOURCES, resources);
+            try (var content = form.createOutputStream()) {
+                content.write("q Q".getBytes(StandardCharsets.US_ASCII));
+            }
+            var xobjects = new COSDictionary();
+            xobjects.setItem(COSName.getPDFName("F1"), form);
+            resources.setItem(COSName.XOBJECT, xobjects);
+
+            PDPage first = addPage(document, "Chapter 1");
+            PDPage second = addPage(document, "Chapter 2");
+            first.setResources(new PDResources(resources));
+            second.setResources(new PDResources(resources));
+
+            var keys = new PageCache.Keys("dpi=72");
+            String firstKey = keys.keyOf(first);
+            String secondKey = keys.keyOf(second);
+
+            assertEquals(PageCache.keyOf(first, "dpi=72"), firstKey);
+            assertEquals(PageCache.keyOf(second, "dpi=72"), secondKey);
+            assertNotEquals(firstKey, secondKey);
+            assertEquals(firstKey, keys.keyOf(first));
+        }
+    }
+
+    @Test
+    @DisplayName("Should key pages by their annotation appearances, not by the pages they link to")
+    void shouldKeyAnnotations() throws IOException {
+        try (PDDocument first = new PDDocument(); PDDocument second = new PDDocument()) {
+            PDPage page = addPage(first, "Form");
+            PDPage stamped = addPage(second, "Form");
+            addPage(second, "Another page");
+            String unannotated = PageCache.keyOf(page, "dpi=72");
+
+            page.getAnnotations().add(stamp(page, "APPROVED"));
+            stamped.getAnnotations().add(stamp(stamped, "APPROVED"));
+            String approved = PageCache.keyOf(page, "dpi=72");
+
+            assertNotEquals(unannotated, approved);
+            assertEquals(approved, PageCache.keyOf(stamped, "dpi=72"),
+                    "The annotation's link to its page should not pull in the rest of the document");
+
+            stamped.getAnnotations().set(0, stamp(stamped, "REJECTED"));
+            assertNotEquals(approved, PageCache.keyOf(stamped, "dpi=72"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should read back a cached page after the cache is reopened")
+    void shouldRoundTripEntries() throws IOException {
+        var table = new TableContent(1, 1, List.of(new TableCell(0, 0, 1, 1, new BoundingBox(10, 60, 50, 10), "Qty")));
+        var entry = new PageCache.Entry(
+                new PageLayout(3, List.of(new LayoutElement(0.9, ElementType.TEXT, new BoundingBox(10, 20, 100, 12)))),
+                List.of(
+                        element(ElementType.TEXT, new TextContent("Hello", 11f)),
+                        element(ElementType.TABLE, table)
+                ));
+
+        new PageCache(cacheDir, 1024 * 1024).put("page", entry);
+        PageCache.Entry read = new PageCache(cacheDir, 1024 * 1024).get("page");
+
+        assertEquals(entry, read);
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used pages beyond the budget")
+    void shouldEvictLeastRecentlyUsed() throws IOException {
+        var entry = new PageCache.Entry(new PageLayout(1, List.of()),
+                List.of(element(ElementType.TEXT, new TextContent("x".repeat(200)))));
+        var probe = new PageCache(cacheDir.resolve("probe"), 1024 * 1024);
+        probe.put("probe", entry);
+        long entrySize = Files.size(cacheDir.resolve("probe").resolve("probe.json"));
+
+        var cache = new PageCache(cacheDir.resolve("lru"), entrySize * 2);
+        cache.put("a", entry);
+        cache.put("b", entry);
+        assertNotNull(cache.get("a"));
+        cache.put("c", entry);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"), "The least recently used page should have been evicted");
+        assertNotNull(cache.get("c"));
+    }
+
+    private DocumentElement element(ElementType type, com.splice.model.document.content.PageContent content) {
+        return new DocumentElement("id-" + type, type, new Location(3, new BoundingBox(10, 20, 100, 12)), null, content);
+    }
+
+    private PDAnnotation stamp(PDPage page, String text) throws IOException {
+        var appearance = new COSStream();
+        appearance.setItem(COSName.SUBTYPE, COSName.FORM);
+        try (var content = appearance.createOutputStream()) {
+            content.write(("BT /F1 12 Tf (" + text + ") Tj ET").getBytes(StandardCharsets.US_ASCII));
+        }
+        var appearances = new COSDictionary();
+        appearances.setItem(COSName.N, appearance);
+
+        var annotation = new PDAnnotationRubberStamp();
+        annotation.setRectangle(new PDRectangle(50, 50, 100, 40));
+        annotation.setPage(page);
+        annotation.getCOSObject().setItem(COSName.AP, appearances);
+        return annotation;
+    }
+
+    private PDPage addPage(PDDocument document, String text) throws IOException {
+        PDPage page = new PDPage();
+        document.addPage(page);
+        try (var stream = new PDPageContentStream(document, page)) {
+            stream.beginText();
+            stream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+            stream.newLineAtOffset(50, 700);
+            stream.showText(text);
+            stream.endText();
+        }
+        return page;
+    }
+}
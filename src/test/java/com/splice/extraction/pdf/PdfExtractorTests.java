@@ -1,11 +1,14 @@
 package com.splice.extraction.pdf;
 
 import com.splice.detection.LayoutDetector;
+import com.splice.extraction.Deadline;
+import com.splice.extraction.ExtractionTimeoutException;
 import com.splice.extraction.DocumentExtractor;
 import com.splice.extraction.spi.AssetStorage;
 import com.splice.model.document.ElementType;
 import com.splice.model.document.IngestedDocument;
 import com.splice.model.document.content.ImageContent;
+import com.splice.model.document.content.TextContent;
 
 import com.splice.model.geometry.BoundingBox;
 import com.splice.model.layout.LayoutElement;
@@ -14,6 +17,8 @@ import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,12 +35,15 @@ import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -147,6 +155,37 @@ class PdfExtractorTests {
         return Paths.get(Objects.requireNonNull(getClass().getResource(filename)).toURI());
     }
 
+    @Test
+    @DisplayName("Should lay out born-digital pages without the detector on the fast path, and defer scans to it")
+    void shouldUseStructuralFastPath(@TempDir Path tempDir) throws Exception {
+        var fast = new PdfExtractor(mockStorage, mockDetector, PdfExtractionOptions.DEFAULTS.withStructuralFastPath(true));
+
+        Path pdfPath = tempDir.resolve("text.pdf");
+        try (PDDocument doc = new PDDocument()) {
+            PDPage page = new PDPage();
+            doc.addPage(page);
+            try (var stream = new PDPageContentStream(doc, page)) {
+                stream.beginText();
+                stream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                stream.newLineAtOffset(72, 700);
+                stream.showText("Born-digital paragraph of text.");
+                stream.endText();
+            }
+            doc.save(pdfPath.toFile());
+        }
+
+        IngestedDocument digital = fast.extract(pdfPath);
+
+        verify(mockDetector, never()).detect(any(), anyInt());
+        assertTrue(digital.elements().stream().anyMatch(e -> e.content() instanceof TextContent text
+                && text.text().contains("Born-digital paragraph")), "Text should be extracted from the structural layout");
+
+        Path scanned = Paths.get(Objects.requireNonNull(getClass().getResource("/scanned.pdf")).toURI());
+        fast.extract(scanned);
+
+        verify(mockDetector).detect(any(), eq(1));
+    }
+
     private void createPdfWithImage(Path destination) throws IOException {
         try (PDDocument doc = new PDDocument()) {
             PDPage page = new PDPage(PDRectangle.A4);
@@ -161,4 +200,32 @@ class PdfExtractorTests {
             doc.save(destination.toFile());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should stop sampling text at the deadline")
+    void shouldSampleTextUnderDeadline(@TempDir Path tempDir) throws Exception {
+        Path pdfPath = tempDir.resolve("sample.pdf");
+        try (PDDocument doc = new PDDocument()) {
+            PDPage page = new PDPage();
+            doc.addPage(page);
+            try (var stream = new PDPageContentStream(doc, page)) {
+                stream.beginText();
+                stream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                stream.newLineAtOffset(50, 700);
+                stream.showText("Sampled text");
+                stream.endText();
+            }
+            doc.save(pdfPath.toFile());
+        }
+
+        assertTrue(PdfExtractor.PROVIDER.sampleText(pdfPath, 1).contains("Sampled text"));
+
+        Deadline deadline = Deadline.start(Duration.ofMillis(1), null);
+        try {
+            Thread.sleep(10);
+            assertThrows(ExtractionTimeoutException.class, () -> PdfExtractor.PROVIDER.sampleText(pdfPath, 1));
+        } finally {
+            deadline.close();
+        }
+    }
+}
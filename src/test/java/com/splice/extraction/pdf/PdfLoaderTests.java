@@ -0,0 +1,38 @@
+package com.splice.extraction.pdf;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfLoaderTests {
+
+    private static final long GB = 1024L * 1024 * 1024;
+
+    @Test
+    @DisplayName("Should keep small files in memory only when the heap has room")
+    void shouldResolveAutoBySizeAndHeap() {
+        assertEquals(PdfLoadStrategy.IN_MEMORY, PdfLoader.resolve(PdfLoadStrategy.AUTO, 1024 * 1024, GB));
+        assertEquals(PdfLoadStrategy.MEMORY_MAPPED, PdfLoader.resolve(PdfLoadStrategy.AUTO, 1024 * 1024, 1024 * 1024));
+        assertEquals(PdfLoadStrategy.MEMORY_MAPPED, PdfLoader.resolve(PdfLoadStrategy.AUTO, PdfLoader.IN_MEMORY_LIMIT + 1, 100 * GB));
+        assertEquals(PdfLoadStrategy.MIXED, PdfLoader.resolve(PdfLoadStrategy.AUTO, 3 * GB, 100 * GB));
+        assertEquals(PdfLoadStrategy.TEMP_FILE, PdfLoader.resolve(PdfLoadStrategy.TEMP_FILE, 1024, GB));
+    }
+
+    @Test
+    @DisplayName("Should open the same document with every strategy")
+    void shouldLoadWithEveryStrategy() throws IOException, URISyntaxException {
+        Path pdf = Path.of(Objects.requireNonNull(getClass().getResource("/three_pages.pdf")).toURI());
+
+        for (PdfLoadStrategy strategy : PdfLoadStrategy.values()) {
+            try (var document = new PdfLoader(strategy, PdfExtractionOptions.DEFAULT_STREAM_CACHE_BUDGET).load(pdf)) {
+                assertEquals(3, document.getNumberOfPages(), strategy.name());
+            }
+        }
+    }
+}
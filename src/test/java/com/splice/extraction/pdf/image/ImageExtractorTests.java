@@ -23,6 +23,8 @@ import java.io.IOException;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class ImageExtractorTests {
@@ -139,6 +141,30 @@ class ImageExtractorTests {
         }
     }
 
+    @Test
+    @DisplayName("Should parse the page once, return each placement once and store a reused image once")
+    void shouldReusePagePassAcrossRegions() throws IOException {
+        try (PDDocument doc = new PDDocument()) {
+            PDPage page = new PDPage(new PDRectangle(0, 0, 500, 500));
+            doc.addPage(page);
+
+            PDImageXObject logo = LosslessFactory.createFromImage(doc, createDummyImage(100, 100));
+            try (PDPageContentStream contentStream = new PDPageContentStream(doc, page)) {
+                contentStream.drawImage(logo, 50, 350);
+                contentStream.drawImage(logo, 300, 50);
+            }
+
+            var first = extractor.extractRegion(page, 1, new BoundingBox(0, 0, 500, 300));
+            var overlapping = extractor.extractRegion(page, 1, new BoundingBox(0, 0, 500, 200));
+            var rest = extractor.extractRegion(page, 1, new BoundingBox(0, 0, 500, 500));
+
+            assertEquals(1, first.size());
+            assertTrue(overlapping.isEmpty(), "An image already returned for this page should not be duplicated");
+            assertEquals(1, rest.size());
+            verify(mockStorage, times(1)).store(any(), anyString());
+        }
+    }
+
     @Test
     void extractRegion_nullInputs_shouldBeSafe() throws IOException {
         BoundingBox box = new BoundingBox(0,0,10,10);
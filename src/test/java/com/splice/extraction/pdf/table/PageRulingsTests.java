@@ -0,0 +1,74 @@
+package com.splice.extraction.pdf.table;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import technology.tabula.*;
+import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageRulingsTests {
+
+    @Test
+    @DisplayName("Should build the same ruled tables as Tabula from the cached page analysis")
+    void shouldMatchSpreadsheetExtraction() {
+        Page page = pageWithGrid();
+        var rulings = new PageRulings(page);
+
+        List<Table> expected = new SpreadsheetExtractionAlgorithm().extract(page);
+        List<Table> cached = rulings.latticeTables(new Rectangle(0, 0, 500, 500), new SpreadsheetExtractionAlgorithm());
+
+        assertEquals(1, cached.size());
+        assertEquals(texts(expected.getFirst()), texts(cached.getFirst()));
+        assertEquals(List.of(List.of("A", "B"), List.of("C", "D")), texts(cached.getFirst()));
+    }
+
+    @Test
+    @DisplayName("Should find no lattice table in a region without ruled cells")
+    void shouldIgnoreRegionsWithoutCells() {
+        var rulings = new PageRulings(pageWithGrid());
+
+        assertTrue(rulings.latticeTables(new Rectangle(300, 300, 100, 100), new SpreadsheetExtractionAlgorithm()).isEmpty());
+        assertEquals(1, rulings.latticeAreas().size());
+    }
+
+    /**
+     * A 2x2 grid spanning (100, 100) to (300, 200), one letter per cell.
+     */
+    private Page pageWithGrid() {
+        List<Ruling> rulings = new ArrayList<>();
+        for (float y : new float[]{100, 150, 200}) rulings.add(new Ruling(y, 100, 200, 0));
+        for (float x : new float[]{100, 200, 300}) rulings.add(new Ruling(100, x, 0, 100));
+
+        List<TextElement> text = List.of(
+                letter("A", 140, 120), letter("B", 240, 120),
+                letter("C", 140, 170), letter("D", 240, 170)
+        );
+        var index = new RectangleSpatialIndex<TextElement>();
+        text.forEach(index::add);
+        return Page.Builder.newInstance()
+                .withPageDims(PageDims.of(0, 0, 500, 500))
+                .withNumber(1)
+                .withTextElements(text)
+                .withRulings(rulings)
+                .withMinCharWidth(6)
+                .withMinCharHeight(10)
+                .withIndex(index)
+                .build();
+    }
+
+    private TextElement letter(String c, float x, float y) {
+        return new TextElement(y, x, 6, 10, null, 10, c, 3);
+    }
+
+    @SuppressWarnings("rawtypes") // Table.getRows() exposes the raw RectangularTextContainer
+    private List<List<String>> texts(Table table) {
+        return table.getRows().stream()
+                .map(row -> row.stream().map(cell -> cell.getText().trim()).toList())
+                .toList();
+    }
+}
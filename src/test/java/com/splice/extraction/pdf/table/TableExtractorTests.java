@@ -116,4 +116,21 @@ public class TableExtractorTests {
         assertTrue(extractor.extractRegion(null, box).isEmpty(), "Null page should return empty");
         assertTrue(extractor.extractRegion(tabulaPage, null).isEmpty(), "Null box should return empty");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return the tables of several regions in region order, like a sequential pass")
+    void extractRegionsConcurrentlyInOrder() {
+        var tableBox = results.getFirst().location().bbox();
+        var emptyMarginBox = new BoundingBox(0f, 0f, 10f, 10f);
+        var regions = List.of(emptyMarginBox, tableBox, emptyMarginBox, tableBox);
+
+        var sequential = new TableExtractor(Runnable::run).extractRegions(tabulaPage, regions);
+        var concurrent = extractor.extractRegions(tabulaPage, regions);
+
+        assertEquals(2, concurrent.size());
+        assertEquals(
+                sequential.stream().map(e -> ((TableContent) e.content()).csvData()).toList(),
+                concurrent.stream().map(e -> ((TableContent) e.content()).csvData()).toList()
+        );
+    }
+}
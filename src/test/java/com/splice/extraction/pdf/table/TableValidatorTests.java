@@ -0,0 +1,47 @@
+package com.splice.extraction.pdf.table;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import technology.tabula.Table;
+import technology.tabula.TextChunk;
+import technology.tabula.TextElement;
+import technology.tabula.extractors.BasicExtractionAlgorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableValidatorTests {
+
+    @Test
+    @DisplayName("Should keep a small filled grid")
+    void shouldAcceptTable() {
+        assertFalse(TableValidator.isNoise(table(new String[][]{{"Item", "Price"}, {"Pen", "1.20"}})));
+    }
+
+    @Test
+    @DisplayName("Should reject empty, single-row and single-column tables")
+    void shouldRejectDegenerateTables() {
+        assertTrue(TableValidator.isNoise(table(new String[][]{{" ", ""}, {"", "  "}})));
+        assertTrue(TableValidator.isNoise(table(new String[][]{{"Item", "Price"}})));
+        assertTrue(TableValidator.isNoise(table(new String[][]{{"Item"}, {"Pen"}})));
+        assertTrue(TableValidator.isNoise(null));
+    }
+
+    @Test
+    @DisplayName("Should reject tables holding prose")
+    void shouldRejectProse() {
+        String paragraph = "word ".repeat(120);
+        assertTrue(TableValidator.isNoise(table(new String[][]{{"Item", paragraph}, {"Pen", "1.20"}})));
+    }
+
+    private Table table(String[][] cells) {
+        var table = new Table(new BasicExtractionAlgorithm());
+        for (int r = 0; r < cells.length; r++) {
+            for (int c = 0; c < cells[r].length; c++) {
+                var element = new TextElement(r * 10, c * 50, 40, 10, null, 10, cells[r][c], 3);
+                table.add(new TextChunk(element), r, c);
+            }
+        }
+        return table;
+    }
+}
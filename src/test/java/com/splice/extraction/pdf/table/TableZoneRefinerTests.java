@@ -0,0 +1,45 @@
+package com.splice.extraction.pdf.table;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import technology.tabula.Rectangle;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableZoneRefinerTests {
+
+    private final TableZoneRefiner refiner = new TableZoneRefiner();
+
+    @Test
+    @DisplayName("Should merge chains of overlaps, including ones created by an earlier union")
+    void shouldMergeTransitively() {
+        // A and B overlap; their union reaches C, which neither overlaps alone and which sorts first by top
+        var a = new Rectangle(100, 0, 100, 50);
+        var b = new Rectangle(140, 90, 100, 50);
+        var c = new Rectangle(50, 150, 40, 80);
+        var separate = new Rectangle(400, 0, 50, 50);
+
+        List<Rectangle> zones = refiner.refine(List.of(separate, c, a, b));
+
+        assertEquals(2, zones.size());
+        var merged = zones.getFirst();
+        assertEquals(50, merged.getTop(), 0.01);
+        assertEquals(0, merged.getLeft(), 0.01);
+        assertEquals(190, merged.getRight(), 0.01);
+        assertEquals(190, merged.getBottom(), 0.01);
+        assertEquals(400, zones.get(1).getTop(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Should keep touching but disjoint zones apart")
+    void shouldKeepDisjointZones() {
+        var left = new Rectangle(0, 0, 100, 100);
+        var right = new Rectangle(0, 100, 100, 100);
+
+        assertEquals(2, refiner.refine(List.of(left, right)).size());
+        assertTrue(refiner.refine(List.of()).isEmpty());
+    }
+}
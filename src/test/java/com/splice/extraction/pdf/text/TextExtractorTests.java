@@ -131,6 +131,27 @@ class TextExtractorTests {
         }
     }
 
+    @Test
+    @DisplayName("Should keep the lines of each column together on a two-column page")
+    void shouldSeparateColumns() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            for (int i = 0; i < 3; i++) {
+                writeText(document, page, "Left column, line " + i + " of the text", 50, 700 - i * 13);
+                writeText(document, page, "Right column, line " + i + " of the text", 320, 700 - i * 13);
+            }
+
+            var results = extractor.extract(document, 1, null);
+
+            assertEquals(2, results.size(), "Each column should form a single block");
+            assertEquals(String.join("\n", "Left column, line 0 of the text", "Left column, line 1 of the text", "Left column, line 2 of the text"),
+                    ((TextContent) results.get(0).content()).text());
+            assertEquals(String.join("\n", "Right column, line 0 of the text", "Right column, line 1 of the text", "Right column, line 2 of the text"),
+                    ((TextContent) results.get(1).content()).text());
+        }
+    }
+
     private PDDocument createInMemoryDocument(String text, float x, float y) throws IOException {
         PDDocument document = new PDDocument();
         PDPage page = new PDPage();
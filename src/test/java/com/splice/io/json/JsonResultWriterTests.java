@@ -1,5 +1,7 @@
 package com.splice.io.json;
 
+import com.splice.model.document.content.TableCell;
+import com.splice.model.document.content.TableContent;
 import com.splice.model.document.content.TextContent;
 import com.splice.model.geometry.BoundingBox;
 import com.splice.model.document.*;
@@ -83,6 +85,26 @@ class JsonResultWriterTests {
         assertEquals(1, element.get("location").get("pageNumber").asInt());
     }
 
+    @Test
+    @DisplayName("Should serialize tables as a cell grid with their CSV rendering only")
+    void shouldSerializeTableGrid() {
+        Path destination = tempDir.resolve("table.json");
+        var box = new BoundingBox(0, 0, 10, 10);
+        var table = new TableContent(1, 2, List.of(new TableCell(0, 0, 1, 2, box, "Total")));
+        var element = new DocumentElement("table-1", ElementType.TABLE, new Location(1, box), null, table);
+        var metadata = new DocumentMetadata("test_file.pdf", "hash123", 1, 10L);
+
+        writer.write(new IngestedDocument("doc-id-1", metadata, List.of(element)), destination);
+
+        JsonNode content = objectMapper.readTree(destination.toFile()).get("elements").get(0).get("content");
+        assertEquals("TABLE", content.get("contentType").asString());
+        assertEquals(2, content.get("cols").asInt());
+        assertEquals(2, content.get("cells").get(0).get("colSpan").asInt());
+        assertEquals("Total", content.get("cells").get(0).get("text").asString());
+        assertEquals("Total,\n", content.get("csvData").asString(), "Kept for consumers of earlier reports");
+        assertNull(content.get("markdown"), "Other renderings are produced on demand, not stored");
+    }
+
     private IngestedDocument createDummyDocument(String textContent) {
         var metadata = new DocumentMetadata("test_file.pdf", "hash123", 5, 1200L);
         var location = new Location(1, new BoundingBox(0, 0, 100, 100));
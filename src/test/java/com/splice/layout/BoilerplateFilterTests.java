@@ -0,0 +1,75 @@
+package com.splice.layout;
+
+import com.splice.model.document.DocumentElement;
+import com.splice.model.document.ElementType;
+import com.splice.model.document.Location;
+import com.splice.model.document.content.TextContent;
+import com.splice.model.geometry.BoundingBox;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoilerplateFilterTests {
+
+    @Test
+    @DisplayName("Should drop a footer once it recurs at the same place, whatever its page number")
+    void shouldDropRecurringFooter() {
+        var filter = new BoilerplateFilter(3);
+
+        for (int page = 1; page <= 5; page++) {
+            List<DocumentElement> kept = filter.filter(List.of(
+                    element(page, ElementType.TEXT, "Body text of page " + page, 40, 100),
+                    element(page, ElementType.PAGE_FOOTER, "Confidential - Page " + page, 40.5f + page % 2, 760)
+            ));
+
+            int expected = page < 3 ? 2 : 1;
+            assertEquals(expected, kept.size(), "Unexpected elements on page " + page);
+            assertTrue(((TextContent) kept.getFirst().content()).text().startsWith("Body"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a recurring text found at a different place")
+    void shouldKeepTextElsewhere() {
+        var filter = new BoilerplateFilter(2);
+
+        filter.filter(List.of(element(1, "Notes", 40, 100)));
+        assertEquals(1, filter.filter(List.of(element(2, "Notes", 40, 400))).size());
+        assertEquals(0, filter.filter(List.of(element(3, "  notes ", 40, 100))).size());
+    }
+
+    @Test
+    @DisplayName("Should keep numbered headings and captions recurring at the same place")
+    void shouldKeepNumberedHeadings() {
+        var filter = new BoilerplateFilter(2);
+
+        for (int page = 1; page <= 4; page++) {
+            List<DocumentElement> kept = filter.filter(List.of(
+                    element(page, ElementType.SECTION_HEADER, "ARTICLE " + page, 40, 60),
+                    element(page, ElementType.TITLE, "Terms and Conditions", 40, 30),
+                    element(page, ElementType.TEXT, "Table " + page, 40, 300)
+            ));
+
+            assertEquals(3, kept.size(), "Unexpected elements on page " + page);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a threshold below two pages")
+    void shouldRejectLowThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new BoilerplateFilter(1));
+    }
+
+    private DocumentElement element(int page, String text, float x, float y) {
+        return element(page, ElementType.TEXT, text, x, y);
+    }
+
+    private DocumentElement element(int page, ElementType type, String text, float x, float y) {
+        return new DocumentElement("e-" + page + "-" + y, type,
+                new Location(page, new BoundingBox(x, y, 200, 10)), null, new TextContent(text));
+    }
+}
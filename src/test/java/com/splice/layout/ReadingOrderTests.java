@@ -0,0 +1,88 @@
+package com.splice.layout;
+
+import com.splice.model.geometry.BoundingBox;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadingOrderTests {
+
+    private record Named(String name, BoundingBox box) {}
+
+    @Test
+    @DisplayName("Should read a full-width title, then each column top to bottom, then the footer")
+    void shouldReadColumnsInOrder() {
+        List<Named> page = List.of(
+                named("right-1", 320, 100, 250, 60),
+                named("left-2", 40, 180, 250, 60),
+                named("footer", 40, 700, 530, 20),
+                named("title", 40, 40, 530, 30),
+                named("left-1", 40, 100, 250, 60),
+                named("right-2", 320, 180, 250, 60)
+        );
+
+        assertEquals(List.of("title", "left-1", "left-2", "right-1", "right-2", "footer"), names(page));
+    }
+
+    @Test
+    @DisplayName("Should read boxes sharing a line left to right despite different tops")
+    void shouldReadLinesLeftToRight() {
+        List<Named> page = List.of(
+                named("value", 300, 102, 80, 12),
+                named("label", 40, 100, 100, 14),
+                named("overlapping", 120, 95, 200, 30),
+                named("next", 40, 140, 100, 14)
+        );
+
+        assertEquals(List.of("label", "overlapping", "value", "next"), names(page));
+    }
+
+    @Test
+    @DisplayName("Should return a permutation for arbitrary overlapping layouts")
+    void shouldHandleArbitraryLayouts() {
+        var random = new Random(42);
+        List<Named> page = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            page.add(named("e" + i, random.nextFloat() * 600, random.nextFloat() * 800,
+                    random.nextFloat() * 200, random.nextFloat() * 40));
+        }
+
+        List<Named> sorted = ReadingOrder.sort(page, Named::box);
+
+        assertEquals(page.size(), sorted.size());
+        assertEquals(new HashSet<>(page), new HashSet<>(sorted));
+        assertEquals(sorted, ReadingOrder.sort(sorted.reversed(), Named::box), "Order should not depend on input order");
+    }
+
+    @Test
+    @DisplayName("Should order glyphs line by line without splitting them into columns")
+    void shouldSortByLinesOnly() {
+        List<Named> glyphs = new ArrayList<>();
+        var random = new Random(7);
+        for (int line = 0; line < 20; line++) {
+            for (int column = 0; column < 30; column++) {
+                // Baselines jitter by a point, as with mixed fonts
+                glyphs.add(named(line + ":" + column, column * 20, line * 14 + random.nextFloat(), 6, 10));
+            }
+        }
+        Collections.shuffle(glyphs, random);
+
+        List<Named> sorted = ReadingOrder.sortByLines(glyphs, Named::box);
+
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals((i / 30) + ":" + (i % 30), sorted.get(i).name());
+        }
+    }
+
+    private Named named(String name, float x, float y, float width, float height) {
+        return new Named(name, new BoundingBox(x, y, width, height));
+    }
+
+    private List<String> names(List<Named> page) {
+        return ReadingOrder.sort(page, Named::box).stream().map(Named::name).toList();
+    }
+}
@@ -0,0 +1,80 @@
+package com.splice.layout;
+
+import com.splice.model.document.DocumentElement;
+import com.splice.model.document.ElementType;
+import com.splice.model.document.HierarchyContext;
+import com.splice.model.document.Location;
+import com.splice.model.document.content.TextContent;
+import com.splice.model.geometry.BoundingBox;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectionTrackerTests {
+
+    @Test
+    @DisplayName("Should nest headers by font size and close sections at an equal or larger header")
+    void shouldNestHeadersByFontSize() {
+        var tracker = new SectionTracker();
+
+        List<DocumentElement> page = tracker.assign(List.of(
+                element("title", ElementType.TITLE, 1, "User Guide", 24),
+                element("chapter", ElementType.SECTION_HEADER, 1, "1. Install", 16),
+                element("section", ElementType.SECTION_HEADER, 1, "1.1 Linux", 12),
+                element("body", ElementType.TEXT, 1, "Run the installer.", 10),
+                element("next-chapter", ElementType.SECTION_HEADER, 1, "2. Usage", 16),
+                element("footer", ElementType.PAGE_FOOTER, 1, "Page 1", 8)
+        ));
+
+        assertEquals(new HierarchyContext(null, null, 0, false), page.get(0).context());
+        assertEquals(new HierarchyContext("title", "User Guide", 1, false), page.get(1).context());
+        assertEquals(new HierarchyContext("chapter", "1. Install", 2, false), page.get(2).context());
+        assertEquals(new HierarchyContext("section", "1.1 Linux", 3, false), page.get(3).context());
+        assertEquals(new HierarchyContext("title", "User Guide", 1, false), page.get(4).context());
+        assertEquals(new HierarchyContext(null, null, 0, false), page.get(5).context());
+    }
+
+    @Test
+    @DisplayName("Should carry open sections over to the next page as continuations")
+    void shouldContinueSectionsAcrossPages() {
+        var tracker = new SectionTracker();
+
+        tracker.assign(List.of(element("header", ElementType.SECTION_HEADER, 1, "Results\n(continued)", 14)));
+        List<DocumentElement> second = tracker.assign(List.of(
+                element("body", ElementType.TEXT, 2, "More results.", 10),
+                element("new", ElementType.SECTION_HEADER, 2, "Discussion", 14),
+                element("after", ElementType.TEXT, 2, "Discussion text.", 10)
+        ));
+
+        assertEquals(new HierarchyContext("header", "Results (continued)", 1, true), second.get(0).context());
+        assertEquals(new HierarchyContext(null, null, 0, false), second.get(1).context());
+        assertEquals(new HierarchyContext("new", "Discussion", 1, false), second.get(2).context());
+    }
+
+    @Test
+    @DisplayName("Should close the first title and its headers at a second title")
+    void shouldCloseTitleAtNextTitle() {
+        var tracker = new SectionTracker();
+
+        List<DocumentElement> page = tracker.assign(List.of(
+                element("part-1", ElementType.TITLE, 1, "Part I", 20),
+                element("chapter", ElementType.SECTION_HEADER, 1, "Setup", 28),
+                element("part-2", ElementType.TITLE, 1, "Part II", 20),
+                element("body", ElementType.TEXT, 1, "Second part.", 10)
+        ));
+
+        assertEquals(new HierarchyContext("part-1", "Part I", 1, false), page.get(1).context(),
+                "A header set larger than the title still nests under it");
+        assertEquals(new HierarchyContext(null, null, 0, false), page.get(2).context());
+        assertEquals(new HierarchyContext("part-2", "Part II", 1, false), page.get(3).context());
+    }
+
+    private DocumentElement element(String id, ElementType type, int page, String text, float fontSize) {
+        return new DocumentElement(id, type, new Location(page, new BoundingBox(0, 0, 100, 10)), null,
+                new TextContent(text, fontSize));
+    }
+}
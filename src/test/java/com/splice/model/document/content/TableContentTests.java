@@ -0,0 +1,65 @@
+package com.splice.model.document.content;
+
+import com.splice.model.geometry.BoundingBox;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableContentTests {
+
+    private static final BoundingBox BOX = new BoundingBox(0, 0, 10, 10);
+
+    /**
+     * | Item (2 cols) |        |
+     * | Pen, blue     | "1" $  |
+     */
+    private final TableContent table = new TableContent(2, 2, List.of(
+            new TableCell(1, 1, 1, 1, BOX, "\"1\" $"),
+            new TableCell(0, 0, 1, 2, BOX, "Item"),
+            new TableCell(1, 0, 1, 1, BOX, "Pen, blue")
+    ));
+
+    @Test
+    @DisplayName("Should render CSV with quoting and empty spanned positions")
+    void shouldRenderCsv() {
+        assertEquals("Item,\n\"Pen, blue\",\"\"\"1\"\" $\"\n", table.csvData());
+    }
+
+    @Test
+    @DisplayName("Should render Markdown with the first row as header")
+    void shouldRenderMarkdown() {
+        assertEquals("| Item |  |\n|---|---|\n| Pen, blue | \"1\" $ |\n", table.toMarkdown());
+    }
+
+    @Test
+    @DisplayName("Should render HTML keeping spans")
+    void shouldRenderHtml() {
+        assertEquals("<table>\n<tr><td colspan=\"2\">Item</td></tr>\n<tr><td>Pen, blue</td><td>\"1\" $</td></tr>\n</table>\n",
+                table.toHtml());
+    }
+
+    @Test
+    @DisplayName("Should serialise the CSV rendering next to the grid and read the grid back")
+    void shouldKeepCsvDataInJson() {
+        ObjectMapper mapper = JsonMapper.builder().build();
+
+        String json = mapper.writerFor(PageContent.class).writeValueAsString(table);
+
+        assertTrue(json.contains("\"csvData\":\"Item,\\n"), json);
+        assertEquals(table, mapper.readValue(json, PageContent.class));
+    }
+
+    @Test
+    @DisplayName("Should reject cells outside the grid")
+    void shouldRejectCellsOutsideGrid() {
+        var outside = List.of(new TableCell(0, 1, 1, 2, BOX, "x"));
+        assertThrows(IllegalArgumentException.class, () -> new TableContent(1, 2, outside));
+    }
+}
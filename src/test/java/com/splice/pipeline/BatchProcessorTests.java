@@ -1,9 +1,11 @@
 package com.splice.pipeline;
 
 import com.splice.detection.LayoutDetector;
+import com.splice.extraction.Deadline;
 import com.splice.extraction.DocumentExtractor;
 import com.splice.extraction.spi.AssetStorage;
 import com.splice.extraction.spi.ExtractorProvider;
+import com.splice.io.PathResolver;
 import com.splice.io.ResultWriter;
 import com.splice.model.document.DocumentMetadata;
 import com.splice.model.document.IngestedDocument;
@@ -19,7 +21,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -79,6 +83,34 @@ class BatchProcessorTests {
         verify(mockProvider, times(2)).create(any(AssetStorage.class), eq(mockDetector));
     }
 
+    @Test
+    @DisplayName("Should skip a document whose first pages repeat an earlier document")
+    void shouldSkipNearDuplicates() throws IOException {
+        Files.createFile(inputDir.resolve("original.pdf"));
+        Files.createFile(inputDir.resolve("copy.pdf"));
+        String text = "Master services agreement between the parties, effective on signature. ".repeat(10);
+
+        when(mockProvider.supports(any(Path.class))).thenReturn(true);
+        when(mockProvider.sampleText(any(Path.class), eq(2))).thenReturn(text);
+        when(mockProvider.create(any(AssetStorage.class), eq(mockDetector))).thenReturn(mockExtractor);
+        when(mockExtractor.extract(any(Path.class))).thenReturn(dummyDoc);
+
+        var deduplicating = new BatchProcessor(mockWriter, new PathResolver(), List.of(mockProvider), mockDetector, 1,
+                ProcessingLimits.NONE, ChunkingOptions.NONE, new NearDuplicateOptions(2, 0.9));
+        deduplicating.process(inputDir, outputDir, false);
+
+        verify(mockExtractor, times(1)).extract(any(Path.class));
+        verify(mockWriter, times(1)).write(eq(dummyDoc), any(Path.class));
+
+        // The skipped copy is journaled with the document it repeats
+        List<String[]> duplicates = Files.readAllLines(outputDir.resolve(ProgressJournal.FILE_NAME)).stream()
+                .map(line -> line.split("\t", -1))
+                .filter(fields -> fields.length == 7)
+                .toList();
+        assertEquals(1, duplicates.size());
+        assertEquals(Set.of("original.pdf", "copy.pdf"), Set.of(duplicates.getFirst()[0], duplicates.getFirst()[6]));
+    }
+
     @Test
     @DisplayName("Should skip files not supported by any provider")
     void shouldSkipUnsupported() throws IOException {
@@ -133,4 +165,104 @@ class BatchProcessorTests {
         verify(mockWriter).write(eq(dummyDoc), pathCaptor.capture());
         assertEquals(expectedJsonOutput.toAbsolutePath(), pathCaptor.getValue().toAbsolutePath());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should accept a single file as input and report its pages")
+    void shouldProcessSingleFile() throws IOException {
+        Path doc = Files.createFile(inputDir.resolve("upload.pdf"));
+
+        when(mockProvider.supports(doc)).thenReturn(true);
+        when(mockProvider.create(any(AssetStorage.class), eq(mockDetector))).thenReturn(mockExtractor);
+        when(mockExtractor.extract(doc)).thenReturn(dummyDoc);
+
+        int pages = processor.process(doc, outputDir, false);
+
+        assertEquals(1, pages);
+        verify(mockWriter).write(dummyDoc, outputDir.resolve("upload.json"));
+    }
+
+    @Test
+    @DisplayName("Should skip journaled files when resuming and reprocess changed ones")
+    void shouldResumeFromJournal() throws IOException {
+        Path done = Files.createFile(inputDir.resolve("done.pdf"));
+        Path changed = Files.createFile(inputDir.resolve("changed.pdf"));
+
+        when(mockProvider.supports(any())).thenReturn(true);
+        when(mockProvider.create(any(AssetStorage.class), eq(mockDetector))).thenReturn(mockExtractor);
+        when(mockExtractor.extract(any(Path.class))).thenReturn(dummyDoc);
+
+        processor.process(inputDir, outputDir, false);
+        Files.writeString(changed, "edited");
+
+        processor.process(inputDir, outputDir, false, true);
+
+        verify(mockExtractor, times(1)).extract(done);
+        verify(mockExtractor, times(2)).extract(changed);
+        verify(mockWriter, times(2)).write(dummyDoc, outputDir.resolve("changed.json"));
+        assertTrue(Files.exists(outputDir.resolve(ProgressJournal.FILE_NAME)));
+    }
+
+    @Test
+    @DisplayName("Should start the most expensive documents first")
+    void shouldScheduleLargestFirst() throws IOException {
+        Path small = Files.writeString(inputDir.resolve("a_small.pdf"), "x");
+        Path large = Files.write(inputDir.resolve("b_large.pdf"), new byte[64 * 1024]);
+        Path longest = Files.writeString(inputDir.resolve("c_many_pages.pdf"), "x");
+
+        when(mockProvider.supports(any())).thenReturn(true);
+        when(mockProvider.probePageCount(any())).thenReturn(-1);
+        when(mockProvider.probePageCount(longest.toAbsolutePath())).thenReturn(40);
+        when(mockProvider.create(any(AssetStorage.class), eq(mockDetector))).thenReturn(mockExtractor);
+        when(mockExtractor.extract(any(Path.class))).thenReturn(dummyDoc);
+
+        var sequential = new BatchProcessor(mockWriter, new PathResolver(), List.of(mockProvider), mockDetector, 1);
+        sequential.process(inputDir, outputDir, false);
+
+        var order = inOrder(mockExtractor);
+        order.verify(mockExtractor).extract(longest.toAbsolutePath());
+        order.verify(mockExtractor).extract(large.toAbsolutePath());
+        order.verify(mockExtractor).extract(small.toAbsolutePath());
+    }
+
+    @Test
+    @DisplayName("Should time out a runaway document and quarantine it for later runs")
+    void shouldTimeOutAndQuarantine() throws IOException {
+        Path poison = Files.createFile(inputDir.resolve("poison.pdf"));
+
+        when(mockProvider.supports(any())).thenReturn(true);
+        when(mockProvider.create(any(AssetStorage.class), eq(mockDetector))).thenReturn(mockExtractor);
+        when(mockExtractor.extract(any(Path.class))).thenAnswer(invocation -> {
+            while (true) {
+                Deadline.check();
+                Thread.onSpinWait();
+            }
+        });
+
+        var limits = new ProcessingLimits(Duration.ofMillis(100), Duration.ZERO, 1);
+        var limited = new BatchProcessor(mockWriter, new PathResolver(), List.of(mockProvider), mockDetector, 1, limits);
+
+        assertEquals(0, limited.process(inputDir, outputDir, false));
+        assertEquals(0, limited.process(inputDir, outputDir, false));
+
+        verify(mockExtractor, times(1)).extract(poison.toAbsolutePath());
+        assertTrue(Files.readString(outputDir.resolve(Quarantine.FILE_NAME)).contains("ExtractionTimeoutException"));
+    }
+
+    @Test
+    @DisplayName("Should not quarantine a document for failures other than timeouts")
+    void shouldNotQuarantineFailures() throws IOException {
+        Path broken = Files.createFile(inputDir.resolve("broken.pdf"));
+
+        when(mockProvider.supports(any())).thenReturn(true);
+        when(mockProvider.create(any(AssetStorage.class), eq(mockDetector))).thenReturn(mockExtractor);
+        when(mockExtractor.extract(any(Path.class))).thenThrow(new RuntimeException(new IOException("disk hiccup")));
+
+        var limits = new ProcessingLimits(Duration.ofMinutes(1), Duration.ZERO, 1);
+        var limited = new BatchProcessor(mockWriter, new PathResolver(), List.of(mockProvider), mockDetector, 1, limits);
+
+        limited.process(inputDir, outputDir, false);
+        limited.process(inputDir, outputDir, false);
+
+        verify(mockExtractor, times(2)).extract(broken.toAbsolutePath());
+    }
+}
@@ -0,0 +1,130 @@
+package com.splice.pipeline;
+
+import com.splice.model.document.Chunk;
+import com.splice.model.document.DocumentElement;
+import com.splice.model.document.ElementType;
+import com.splice.model.document.HierarchyContext;
+import com.splice.model.document.Location;
+import com.splice.model.document.content.PageContent;
+import com.splice.model.document.content.TableCell;
+import com.splice.model.document.content.TableContent;
+import com.splice.model.document.content.TextContent;
+import com.splice.model.geometry.BoundingBox;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkerTests {
+
+    @Test
+    @DisplayName("Should start a new chunk at each section and keep the source elements")
+    void shouldRespectSections() {
+        List<Chunk> chunks = Chunker.chunk(List.of(
+                element("h1", ElementType.SECTION_HEADER, null, new TextContent("Install")),
+                element("p1", ElementType.TEXT, "h1", new TextContent("Run the installer.")),
+                element("footer", ElementType.PAGE_FOOTER, null, new TextContent("Page 1")),
+                element("h2", ElementType.SECTION_HEADER, null, new TextContent("Usage")),
+                element("p2", ElementType.TEXT, "h2", new TextContent("Start the engine."))
+        ), new ChunkingOptions(100, 0, ChunkingOptions.Unit.TOKENS));
+
+        assertEquals(2, chunks.size());
+        assertEquals("Install\n\nRun the installer.", chunks.get(0).text());
+        assertEquals("h1", chunks.get(0).sectionId());
+        assertEquals("Install", chunks.get(0).sectionTitle());
+        assertEquals(List.of("h1", "p1"), chunks.get(0).elementIds());
+        assertEquals(List.of("h2", "p2"), chunks.get(1).elementIds());
+    }
+
+    @Test
+    @DisplayName("Should bound chunk sizes and overlap consecutive chunks of a long passage")
+    void shouldBoundSizeWithOverlap() {
+        var options = new ChunkingOptions(20, 8, ChunkingOptions.Unit.CHARACTERS);
+
+        List<Chunk> chunks = Chunker.chunk(List.of(
+                element("p", ElementType.TEXT, null, new TextContent("alpha beta gamma delta epsilon zeta eta"))
+        ), options);
+
+        assertTrue(chunks.size() > 1, "The passage should not fit in one chunk");
+        for (int i = 0; i < chunks.size(); i++) {
+            String text = chunks.get(i).text();
+            assertTrue(text.length() <= 20, "Chunk exceeds the budget: " + text);
+            if (i > 0) {
+                String previous = chunks.get(i - 1).text();
+                String lastWord = previous.substring(previous.lastIndexOf(' ') + 1);
+                assertTrue(text.startsWith(lastWord), "Chunk should repeat the end of the previous one: " + text);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should fill chunks up to a token budget without counting whitespace")
+    void shouldBoundSizeInTokens() {
+        List<String> words = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) words.add("w" + i);
+
+        List<Chunk> chunks = Chunker.chunk(List.of(
+                element("p", ElementType.TEXT, null, new TextContent(String.join(" ", words)))
+        ), new ChunkingOptions(5, 0, ChunkingOptions.Unit.TOKENS));
+
+        assertEquals(4, chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            assertEquals(String.join(" ", words.subList(i * 5, i * 5 + 5)), chunks.get(i).text());
+        }
+    }
+
+    @Test
+    @DisplayName("Should chunk tables on their own between rows, repeating the header")
+    void shouldChunkTablesByRows() {
+        List<TableCell> cells = new ArrayList<>();
+        for (int row = 0; row < 5; row++) {
+            cells.add(new TableCell(row, 0, 1, 1, new BoundingBox(0, row * 10, 50, 10), row == 0 ? "Name" : "Item " + row));
+            cells.add(new TableCell(row, 1, 1, 1, new BoundingBox(50, row * 10, 50, 10), row == 0 ? "Qty" : String.valueOf(row)));
+        }
+
+        List<Chunk> chunks = Chunker.chunk(List.of(
+                element("p", ElementType.TEXT, null, new TextContent("Before the table.")),
+                element("t", ElementType.TABLE, null, new TableContent(5, 2, cells))
+        ), new ChunkingOptions(30, 10, ChunkingOptions.Unit.TOKENS));
+
+        assertEquals("Before the table.", chunks.getFirst().text());
+        List<Chunk> tableChunks = chunks.subList(1, chunks.size());
+        assertTrue(tableChunks.size() > 1, "The table should be cut between rows");
+        for (Chunk chunk : tableChunks) {
+            assertEquals(List.of("t"), chunk.elementIds());
+            assertTrue(chunk.text().startsWith("| Name | Qty |\n|---|---|\n"), "Missing header: " + chunk.text());
+        }
+        assertTrue(tableChunks.getLast().text().endsWith("| Item 4 | 4 |"));
+    }
+
+    @Test
+    @DisplayName("Should give a table row larger than the budget a chunk of its own rather than cut it")
+    void shouldKeepOversizedRowsWhole() {
+        String longText = "a very long cell that does not fit";
+        List<TableCell> cells = List.of(
+                new TableCell(0, 0, 1, 1, new BoundingBox(0, 0, 50, 10), "Key"),
+                new TableCell(1, 0, 1, 1, new BoundingBox(0, 10, 50, 10), "short"),
+                new TableCell(2, 0, 1, 1, new BoundingBox(0, 20, 50, 10), longText),
+                new TableCell(3, 0, 1, 1, new BoundingBox(0, 30, 50, 10), "tail")
+        );
+
+        List<Chunk> chunks = Chunker.chunk(List.of(
+                element("t", ElementType.TABLE, null, new TableContent(4, 1, cells))
+        ), new ChunkingOptions(20, 0, ChunkingOptions.Unit.CHARACTERS));
+
+        assertEquals(List.of(
+                "| Key |\n|---|\n| short |",
+                "| Key |\n|---|\n| " + longText + " |",
+                "| Key |\n|---|\n| tail |"
+        ), chunks.stream().map(Chunk::text).toList());
+    }
+
+    private DocumentElement element(String id, ElementType type, String sectionId, PageContent content) {
+        var context = new HierarchyContext(sectionId, null, sectionId == null ? 0 : 1, false);
+        return new DocumentElement(id, type, new Location(1, new BoundingBox(0, 0, 100, 10)), context, content);
+    }
+}
@@ -0,0 +1,95 @@
+package com.splice.pipeline;
+
+import com.splice.detection.LayoutDetector;
+import com.splice.extraction.DocumentExtractor;
+import com.splice.extraction.spi.AssetStorage;
+import com.splice.extraction.spi.ExtractorProvider;
+import com.splice.io.ResultWriter;
+import com.splice.model.document.DocumentMetadata;
+import com.splice.model.document.IngestedDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DirectoryWatcherTests {
+
+    @TempDir
+    Path tempDir;
+    Path inputDir;
+    Path outputDir;
+
+    @Mock
+    private ExtractorProvider mockProvider;
+    @Mock
+    private DocumentExtractor mockExtractor;
+    @Mock
+    private ResultWriter mockWriter;
+    @Mock
+    private IngestedDocument dummyDoc;
+    @Mock
+    private DocumentMetadata dummyMetadata;
+    @Mock
+    private LayoutDetector mockDetector;
+
+    private BatchProcessor processor;
+
+    @BeforeEach
+    void setup() throws IOException {
+        inputDir = Files.createDirectory(tempDir.resolve("in"));
+        outputDir = Files.createDirectory(tempDir.resolve("out"));
+
+        processor = new BatchProcessor(mockWriter, List.of(mockProvider), mockDetector);
+
+        lenient().when(mockWriter.extension()).thenReturn(".json");
+        lenient().when(dummyDoc.metadata()).thenReturn(dummyMetadata);
+        lenient().when(dummyMetadata.totalPages()).thenReturn(1);
+        lenient().when(mockProvider.supports(any())).thenAnswer(i -> i.<Path>getArgument(0).toString().endsWith(".pdf"));
+        lenient().when(mockProvider.create(any(AssetStorage.class), eq(mockDetector))).thenReturn(mockExtractor);
+        lenient().when(mockExtractor.extract(any(Path.class))).thenReturn(dummyDoc);
+    }
+
+    @Test
+    @DisplayName("Should process existing files and files dropped while watching, once each")
+    void shouldProcessDroppedFiles() throws Exception {
+        Path existing = Files.createFile(inputDir.resolve("existing.pdf"));
+
+        var watcher = new DirectoryWatcher(processor, inputDir, outputDir, true, Duration.ofMillis(50));
+        Thread thread = Thread.ofVirtual().start(() -> {
+            try {
+                watcher.run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        try {
+            verify(mockExtractor, timeout(5000)).extract(existing.toAbsolutePath());
+
+            Path subDir = Files.createDirectory(inputDir.resolve("later"));
+            Path dropped = subDir.resolve("dropped.pdf");
+            Files.writeString(dropped, "part 1");
+            Files.writeString(dropped, "part 1, part 2");
+
+            verify(mockExtractor, timeout(5000)).extract(dropped.toAbsolutePath());
+        } finally {
+            // Stops the watch loop, which then returns
+            watcher.close();
+            thread.join(5000);
+        }
+
+        verify(mockExtractor, times(1)).extract(existing.toAbsolutePath());
+        verify(mockWriter).write(dummyDoc, outputDir.toAbsolutePath().resolve("later").resolve("dropped.json"));
+    }
+}
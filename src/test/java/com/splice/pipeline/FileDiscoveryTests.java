@@ -0,0 +1,63 @@
+package com.splice.pipeline;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDiscoveryTests {
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("Should find supported files across nested directories")
+    void shouldWalkRecursively() throws IOException {
+        create("a.pdf");
+        create("notes.txt");
+        create("x/b.pdf");
+        create("x/y/z/c.pdf");
+
+        var discovery = new FileDiscovery(p -> p.toString().endsWith(".pdf"), DiscoveryFilter.ALL, 4);
+
+        assertEquals(Set.of("a.pdf", "x/b.pdf", "x/y/z/c.pdf"), relative(discovery.list(root, true)));
+        assertEquals(Set.of("a.pdf"), relative(discovery.list(root, false)));
+    }
+
+    @Test
+    @DisplayName("Should apply include and exclude globs and the modification date")
+    void shouldFilter() throws IOException {
+        create("keep/a.pdf");
+        create("keep/b.PDF");
+        create("archive/old.pdf");
+        Path stale = create("keep/stale.pdf");
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.parse("2000-01-01T00:00:00Z")));
+
+        var filter = new DiscoveryFilter(List.of("*.pdf"), List.of("archive"), Instant.parse("2010-01-01T00:00:00Z"));
+        var discovery = new FileDiscovery(p -> true, filter, 2);
+
+        assertEquals(Set.of("keep/a.pdf"), relative(discovery.list(root, true)));
+    }
+
+    private Path create(String relative) throws IOException {
+        Path file = root.resolve(relative);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, "x");
+    }
+
+    private Set<String> relative(List<Path> files) {
+        return files.stream()
+                .map(f -> root.toAbsolutePath().normalize().relativize(f).toString().replace('\\', '/'))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,65 @@
+package com.splice.pipeline;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearDuplicateIndexTests {
+
+    private static final String CONTRACT = """
+            This agreement is entered into by the supplier and the customer. The supplier shall deliver
+            the goods described in schedule A within thirty days of the order. Payment is due within
+            sixty days of the invoice date. Either party may terminate this agreement with ninety days
+            written notice. This agreement is governed by the laws of the state where the customer resides.
+            """.repeat(3);
+
+    @Test
+    @DisplayName("Should flag a re-stamped copy of an earlier document")
+    void shouldFlagNearDuplicate() {
+        var index = new NearDuplicateIndex(0.8);
+
+        assertNull(register(index, "original.pdf", CONTRACT));
+        assertEquals("original.pdf", register(index, "copy.pdf", "COPY - printed 2024-05-01\n" + CONTRACT));
+    }
+
+    @Test
+    @DisplayName("Should only match documents once they were added")
+    void shouldMatchAddedDocumentsOnly() {
+        var index = new NearDuplicateIndex(0.8);
+        long[] signature = MinHash.signature(CONTRACT);
+
+        assertNull(index.find("original.pdf", signature));
+        assertNull(index.find("copy.pdf", signature), "The original was looked up but not extracted yet");
+
+        index.add("original.pdf", signature);
+        assertEquals("original.pdf", index.find("copy.pdf", signature));
+    }
+
+    @Test
+    @DisplayName("Should not flag unrelated, short or re-submitted documents")
+    void shouldNotFlagOthers() {
+        var index = new NearDuplicateIndex(0.8);
+        register(index, "contract.pdf", CONTRACT);
+
+        String report = """
+                Quarterly revenue grew by twelve percent while operating costs remained flat compared with
+                the previous year. The board approved a new dividend policy and two acquisitions in the
+                logistics sector, expected to close before the end of the fiscal year pending approval.
+                """;
+        assertNull(register(index, "report.pdf", report));
+        assertNull(register(index, "scan.pdf", "Page 1"));
+        assertNull(register(index, "scan-2.pdf", "Page 1"));
+        assertNull(register(index, "contract.pdf", CONTRACT), "A modified document is compared with others only");
+    }
+
+    /**
+     * Looks a document up and adds it if it is new, as a batch does once the document is extracted.
+     */
+    private String register(NearDuplicateIndex index, String source, String text) {
+        long[] signature = MinHash.signature(text);
+        String original = index.find(source, signature);
+        if (original == null) index.add(source, signature);
+        return original;
+    }
+}
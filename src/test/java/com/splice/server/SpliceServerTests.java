@@ -0,0 +1,166 @@
+package com.splice.server;
+
+import com.splice.pipeline.BatchProcessor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpliceServerTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private BatchProcessor mockProcessor;
+
+    private SpliceServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new SpliceServer(mockProcessor, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Should run a submitted job on the warm processor and report its result")
+    void shouldSubmitAndPollJob() throws Exception {
+        Path input = tempDir.resolve("upload.pdf");
+        Path output = tempDir.resolve("out");
+        when(mockProcessor.process(input, output, false)).thenReturn(7);
+
+        JobView submitted = server.submit(new JobRequest(input.toString(), output.toString(), false));
+
+        JobView finished = awaitFinished(submitted.id());
+
+        assertEquals(JobStatus.SUCCEEDED, finished.status());
+        assertEquals(7, finished.pagesProcessed());
+        verify(mockProcessor).process(input, output, false);
+    }
+
+    @Test
+    @DisplayName("Should record failures instead of crashing the service")
+    void shouldReportFailedJob() throws Exception {
+        when(mockProcessor.process(any(), any(), anyBoolean())).thenThrow(new IllegalArgumentException("Invalid input: nope"));
+
+        JobView submitted = server.submit(new JobRequest("nope", tempDir.toString(), true));
+
+        JobView finished = awaitFinished(submitted.id());
+
+        assertEquals(JobStatus.FAILED, finished.status());
+        assertEquals("Invalid input: nope", finished.error());
+    }
+
+    @Test
+    @DisplayName("Should accept jobs and serve their state over HTTP")
+    void shouldExposeHttpApi() throws Exception {
+        when(mockProcessor.process(any(), any(), anyBoolean())).thenReturn(1);
+
+        String body = "{\"input\": \"" + escape(tempDir.resolve("a.pdf")) + "\", \"output\": \"" + escape(tempDir) + "\"}";
+        HttpResponse<String> submitted = send(HttpRequest.newBuilder(uri("/jobs"))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+
+        assertEquals(202, submitted.statusCode(), submitted.body());
+        assertTrue(submitted.body().contains("\"id\""));
+
+        HttpResponse<String> unknown = send(HttpRequest.newBuilder(uri("/jobs/does-not-exist")).GET().build());
+        assertEquals(404, unknown.statusCode());
+
+        HttpResponse<String> invalid = send(HttpRequest.newBuilder(uri("/jobs"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"input\": \"only-input\"}"))
+                .build());
+        assertEquals(400, invalid.statusCode());
+
+        HttpResponse<String> health = send(HttpRequest.newBuilder(uri("/health")).GET().build());
+        assertEquals(200, health.statusCode());
+    }
+
+    @Test
+    @DisplayName("Should run jobs sharing an output root one after another and reject another input for it")
+    void shouldSerializeJobsPerOutputRoot() throws Exception {
+        Path input = Files.createDirectory(tempDir.resolve("in"));
+        Path output = tempDir.resolve("out");
+        var running = new AtomicInteger();
+        var overlapped = new AtomicBoolean();
+        var release = new CountDownLatch(1);
+        when(mockProcessor.process(any(), any(), anyBoolean())).thenAnswer(invocation -> {
+            if (running.incrementAndGet() > 1) overlapped.set(true);
+            release.await(5, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            return 1;
+        });
+
+        try (var concurrent = new SpliceServer(mockProcessor, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2)) {
+            JobView first = concurrent.submit(new JobRequest(input.toString(), output.toString(), false));
+            JobView second = concurrent.submit(new JobRequest(input.resolve("a.pdf").toString(), output.toString(), false));
+            assertThrows(IllegalArgumentException.class, () -> concurrent.submit(
+                    new JobRequest(tempDir.resolve("elsewhere").toString(), output.toString(), false)));
+
+            release.countDown();
+            for (String id : List.of(first.id(), second.id())) {
+                JobView finished = null;
+                for (int attempt = 0; attempt < 200 && (finished == null || !finished.status().isFinished()); attempt++) {
+                    finished = concurrent.poll(id);
+                    Thread.sleep(10);
+                }
+                assertEquals(JobStatus.SUCCEEDED, finished.status());
+            }
+        }
+
+        assertFalse(overlapped.get(), "Jobs on the same output root should not overlap");
+        verify(mockProcessor, times(2)).process(any(), any(), anyBoolean());
+    }
+
+    private JobView awaitFinished(String id) throws InterruptedException {
+        for (int attempt = 0; attempt < 200; attempt++) {
+            JobView view = server.poll(id);
+            if (view.status().isFinished()) return view;
+            Thread.sleep(10);
+        }
+        return fail("Job did not finish in time: " + id);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.address().getPort() + path);
+    }
+
+    private static String escape(Path path) {
+        return path.toString().replace("\\", "\\\\");
+    }
+}